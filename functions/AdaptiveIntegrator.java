@@ -0,0 +1,180 @@
+package functions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Адаптивное интегрирование по квадратурным формулам Гаусса-Кронрода (7/15 точек).
+// На каждом шаге делится пополам отрезок с наибольшей оценкой погрешности,
+// пока суммарная погрешность не станет меньше допуска или не кончится бюджет
+// вычислений функции. Гладкие функции интегрируются с высокой точностью
+// за десятки-сотни вычислений вместо сотен тысяч у метода трапеций с мелким шагом.
+final class AdaptiveIntegrator {
+    // Узлы формулы Кронрода на отрезке [-1, 1] (положительная половина, убывание)
+    private static final double[] XGK = {
+        0.991455371120812639206854697526329,
+        0.949107912342758524526189684047851,
+        0.864864423359769072789712788640926,
+        0.741531185599394439863864773280788,
+        0.586087235467691130294144845693013,
+        0.405845151377397166906606412076961,
+        0.207784955007898467600689403773245,
+        0.000000000000000000000000000000000
+    };
+
+    // Веса формулы Кронрода
+    private static final double[] WGK = {
+        0.022935322010529224963732008058970,
+        0.063092092629978553290700663189204,
+        0.104790010322250183839876322541518,
+        0.140653259715525918745189590510238,
+        0.169004726639267902826583426598550,
+        0.190350578064785409913256402421014,
+        0.204432940075298892414161999234649,
+        0.209482141084727828012999174891714
+    };
+
+    // Веса формулы Гаусса (узлы Гаусса - нечётные узлы Кронрода и центр)
+    private static final double[] WG = {
+        0.129484966168869693270611432679082,
+        0.279705391489276667901467771423780,
+        0.381830050505118944950369775488975,
+        0.417959183673469387755102040816327
+    };
+
+    // Количество вычислений функции на один отрезок
+    static final int POINTS_PER_SEGMENT = 15;
+
+    private AdaptiveIntegrator() {
+    }
+
+    // Отрезок разбиения с оценкой интеграла и погрешности
+    private static final class Segment implements Comparable<Segment> {
+        final double left;
+        final double right;
+        final double value;
+        final double error;
+
+        Segment(double left, double right, double value, double error) {
+            this.left = left;
+            this.right = right;
+            this.value = value;
+            this.error = error;
+        }
+
+        // Отрезки с большей погрешностью идут первыми
+        @Override
+        public int compareTo(Segment other) {
+            return Double.compare(other.error, error);
+        }
+    }
+
+    static IntegrationResult integrate(Function function, double left, double right,
+                                       double absTolerance, double relTolerance, long maxEvaluations) {
+        double[] xs = new double[POINTS_PER_SEGMENT];
+        double[] ys = new double[POINTS_PER_SEGMENT];
+
+        PriorityQueue<Segment> queue = new PriorityQueue<>();
+        // Отрезки, которые больше нельзя делить (их длина достигла точности double)
+        List<Segment> finished = new ArrayList<>();
+
+        Segment first = evaluate(function, left, right, xs, ys);
+        queue.add(first);
+        long evaluations = POINTS_PER_SEGMENT;
+        double total = first.value;
+        double totalError = first.error;
+
+        // Условие записано через отрицание, чтобы NaN не считался достигнутой точностью
+        while (!(totalError <= tolerance(absTolerance, relTolerance, total))
+                && evaluations + 2 * POINTS_PER_SEGMENT <= maxEvaluations
+                && !queue.isEmpty()) {
+            Segment worst = queue.poll();
+            double middle = 0.5 * (worst.left + worst.right);
+            if (middle <= worst.left || middle >= worst.right) {
+                finished.add(worst);
+                continue;
+            }
+            Segment a = evaluate(function, worst.left, middle, xs, ys);
+            Segment b = evaluate(function, middle, worst.right, xs, ys);
+            evaluations += 2 * POINTS_PER_SEGMENT;
+            queue.add(a);
+            queue.add(b);
+            total += a.value + b.value - worst.value;
+            totalError += a.error + b.error - worst.error;
+            // Бесконечная оценка погрешности (например, у особенности) даёт
+            // inf - inf = NaN при вычитании, поэтому суммы пересчитываются заново
+            if (!Double.isFinite(total) || !Double.isFinite(totalError)) {
+                total = 0.0;
+                totalError = 0.0;
+                for (Segment segment : queue) {
+                    total += segment.value;
+                    totalError += segment.error;
+                }
+                for (Segment segment : finished) {
+                    total += segment.value;
+                    totalError += segment.error;
+                }
+            }
+        }
+
+        // Итоговые суммы пересчитываются заново с компенсацией округления,
+        // чтобы не накапливать погрешность от вычитаний в цикле
+        finished.addAll(queue);
+        double sum = 0.0;
+        double compensation = 0.0;
+        double error = 0.0;
+        for (Segment segment : finished) {
+            double t = sum + segment.value;
+            if (Math.abs(sum) >= Math.abs(segment.value)) {
+                compensation += (sum - t) + segment.value;
+            } else {
+                compensation += (segment.value - t) + sum;
+            }
+            sum = t;
+            error += segment.error;
+        }
+        sum += compensation;
+        boolean converged = error <= tolerance(absTolerance, relTolerance, sum);
+        return new IntegrationResult(sum, error, evaluations, converged);
+    }
+
+    // Допустимая погрешность; при бесконечном или неопределённом значении
+    // интеграла относительная точность не учитывается
+    private static double tolerance(double absTolerance, double relTolerance, double value) {
+        if (!Double.isFinite(value)) {
+            return absTolerance;
+        }
+        return Math.max(absTolerance, relTolerance * Math.abs(value));
+    }
+
+    // Вычисляет интеграл по формулам Гаусса (7 точек) и Кронрода (15 точек) на отрезке;
+    // модуль их разности служит оценкой погрешности. Все 15 значений функции
+    // запрашиваются одним пакетным вызовом
+    private static Segment evaluate(Function function, double left, double right, double[] xs, double[] ys) {
+        double center = 0.5 * (left + right);
+        double halfLength = 0.5 * (right - left);
+        for (int j = 0; j < 7; j++) {
+            double dx = halfLength * XGK[j];
+            xs[2 * j] = center - dx;
+            xs[2 * j + 1] = center + dx;
+        }
+        xs[14] = center;
+        function.getFunctionValues(xs, ys);
+
+        double resultKronrod = ys[14] * WGK[7];
+        double resultGauss = ys[14] * WG[3];
+        for (int j = 0; j < 7; j++) {
+            double pair = ys[2 * j] + ys[2 * j + 1];
+            resultKronrod += WGK[j] * pair;
+            if (j % 2 == 1) {
+                resultGauss += WG[j / 2] * pair;
+            }
+        }
+        double value = resultKronrod * halfLength;
+        double error = Math.abs((resultKronrod - resultGauss) * halfLength);
+        if (Double.isNaN(error)) {
+            error = Double.POSITIVE_INFINITY;
+        }
+        return new Segment(left, right, value, error);
+    }
+}
@@ -5,11 +5,28 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
-    private static final long serialVersionUID = 1L;
+    // Версия 2: точки хранятся в массивах xValues/yValues вместо FunctionPoint[];
+    // потоки старого формата отклоняются с InvalidClassException
+    private static final long serialVersionUID = 2L;
     
-    public FunctionPoint[] points;
+    // Координаты точек хранятся в двух параллельных массивах, объекты FunctionPoint
+    // создаются только по запросу (getPoint, итератор)
+    private double[] xValues;
+    private double[] yValues;
     public int pointsCount;
     private static final double EPSILON = 1e-10;
+
+    // Поиск отрезка по абсциссе, создаётся при первом вычислении значения.
+    // Создаётся в локальной переменной и публикуется одной записью volatile-поля,
+    // поэтому читатели из разных потоков не видят частично настроенный объект
+    private transient volatile IntervalLocator locator;
+
+    // Накопленная площадь: area[i] - интеграл от x(0) до x(i). Строится при
+    // первом вычислении интеграла. Опубликованный массив не изменяется: после
+    // изменения точки k остаются верными первые k элементов, и следующий
+    // читатель строит новый массив, копируя их и досчитывая остальные
+    private transient volatile AreaPrefix areaPrefix;
+
     public ArrayTabulatedFunction(double leftX, double rightX, int pointsCount) {
         // Проверка условий конструктора
         if (leftX >= rightX) {
@@ -19,12 +36,12 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new IllegalArgumentException("Количество точек должно быть не менее двух");
         }
         
-        this.points = new FunctionPoint[pointsCount];
+        this.xValues = new double[pointsCount];
+        this.yValues = new double[pointsCount];
         this.pointsCount = pointsCount;
         double step = (rightX - leftX) / (pointsCount - 1);
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step; 
-            points[i] = new FunctionPoint(x, 0);
+            xValues[i] = leftX + i * step;
         }
     }
     
@@ -37,13 +54,14 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new IllegalArgumentException("Количество точек должно быть не менее двух");
         }
         
-        this.points = new FunctionPoint[values.length];
+        this.xValues = new double[values.length];
+        this.yValues = new double[values.length];
         this.pointsCount = values.length;
     
         double step = (rightX - leftX) / (values.length - 1);
         for (int i = 0; i < values.length; i++) {
-            double x = leftX + i * step;
-            points[i] = new FunctionPoint(x, values[i]);
+            xValues[i] = leftX + i * step;
+            yValues[i] = values[i];
         }
     }
 
@@ -63,32 +81,67 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             }
         }
         
-        // Обеспечение инкапсуляции - создаем копию массива и копии точек
-        this.points = new FunctionPoint[points.length];
+        // Обеспечение инкапсуляции - копируем координаты в собственные массивы
+        this.xValues = new double[points.length];
+        this.yValues = new double[points.length];
         this.pointsCount = points.length;
         
         for (int i = 0; i < points.length; i++) {
             if (points[i] == null) {
                 throw new IllegalArgumentException("Точка не может быть null");
             }
-            this.points[i] = new FunctionPoint(points[i]);
+            xValues[i] = points[i].getX();
+            yValues[i] = points[i].getY();
         }
     }
         
+    // Функция над готовыми массивами координат без копирования
+    private ArrayTabulatedFunction(double[] xValues, double[] yValues) {
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.pointsCount = xValues.length;
+    }
+    
+    // Принимает массивы во владение после проверки: одинаковая длина,
+    // не менее двух точек, абсциссы строго возрастают
+    static ArrayTabulatedFunction wrap(double[] xValues, double[] yValues) {
+        if (xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Количество абсцисс и ординат должно совпадать");
+        }
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+        for (int i = 0; i < xValues.length - 1; i++) {
+            if (!(xValues[i] < xValues[i + 1])) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+        return new ArrayTabulatedFunction(xValues, yValues);
+    }
+    
+    // Внутренние массивы координат для массовой записи; верны первые
+    // getPointsCount() элементов
+    double[] internalXValues() {
+        return xValues;
+    }
+    
+    double[] internalYValues() {
+        return yValues;
+    }
+        
     public double getLeftDomainBorder() {
-        return points[0].getX();
+        return xValues[0];
     }
     
     public double getRightDomainBorder() {
-        return points[pointsCount - 1].getX();
+        return xValues[pointsCount - 1];
     }
     
     public double linearInterpolation(FunctionPoint p1, FunctionPoint p2, double x) {
-        double x1 = p1.getX();
-        double y1 = p1.getY();
-        double x2 = p2.getX();
-        double y2 = p2.getY();
-        
+        return linearInterpolation(p1.getX(), p1.getY(), p2.getX(), p2.getY(), x);
+    }
+
+    private static double linearInterpolation(double x1, double y1, double x2, double y2, double x) {
         return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
     }
     
@@ -97,23 +150,141 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             return Double.NaN;
         } 
         
-        for(int i = 0; i < pointsCount - 1; i++){
-            double curX = points[i].getX();
-            double nextX = points[i+1].getX();
-            
-            if(Math.abs(x - curX) < EPSILON){
-                return points[i].getY();
+        // Отрезок [x(i), x(i+1)], содержащий x, находится за O(log n) или O(1)
+        return valueInSegment(locator().locate(x), x);
+    }
+
+    // Значение функции в точке x, лежащей на отрезке [x(i), x(i+1)]
+    private double valueInSegment(int i, double x) {
+        double curX = xValues[i];
+        double nextX = xValues[i+1];
+        
+        if(Math.abs(x - curX) < EPSILON){
+            return yValues[i];
+        }
+        
+        if(x > curX && x < nextX){
+            return linearInterpolation(curX, yValues[i], nextX, yValues[i+1], x);
+        }
+        
+        if(Math.abs(x - nextX) < EPSILON){
+            return yValues[i+1];
+        }
+        return yValues[pointsCount - 1];
+    }
+
+    // Для упорядоченного по возрастанию массива точек узлы и точки проходятся
+    // одновременно за O(n + m), иначе каждая точка ищется отдельно
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (!IntervalLocator.isSorted(xs)) {
+            for (int k = 0; k < xs.length; k++) {
+                out[k] = getFunctionValue(xs[k]);
             }
-            
-            if(x > curX && x < nextX){
-                return linearInterpolation(points[i], points[i+1], x);
+            return;
+        }
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        int last = pointsCount - 2;
+        int i = 0;
+        for (int k = 0; k < xs.length; k++) {
+            double x = xs[k];
+            if (x < left || x > right) {
+                out[k] = Double.NaN;
+                continue;
             }
-            
-            if(Math.abs(x - nextX) < EPSILON){
-                return points[i+1].getY();
+            while (i < last && xValues[i + 1] <= x) {
+                i++;
             }
+            out[k] = valueInSegment(i, x);
         }
-        return points[pointsCount - 1].getY();
+    }
+
+    private IntervalLocator locator() {
+        IntervalLocator current = locator;
+        if (current == null) {
+            current = new IntervalLocator();
+            current.reset(xValues, pointsCount);
+            locator = current;
+        }
+        return current;
+    }
+
+    // Вызывается после любого изменения абсцисс или количества точек
+    private void invalidateLookup() {
+        locator = null;
+    }
+
+    // Вызывается после изменения точки с индексом index: накопленная площадь
+    // до узлов левее index остаётся верной
+    private void invalidateArea(int index) {
+        AreaPrefix prefix = areaPrefix;
+        if (prefix != null && prefix.validCount > index) {
+            areaPrefix = index > 0 ? new AreaPrefix(prefix.area, index) : null;
+        }
+    }
+
+    // Возвращает накопленную площадь для всех узлов. Новый массив заполняется
+    // целиком и только затем публикуется
+    private double[] cumulativeArea() {
+        AreaPrefix prefix = areaPrefix;
+        if (prefix != null && prefix.validCount >= pointsCount) {
+            return prefix.area;
+        }
+        double[] area = new double[pointsCount];
+        int from = 1;
+        if (prefix != null) {
+            System.arraycopy(prefix.area, 0, area, 0, prefix.validCount);
+            from = prefix.validCount;
+        }
+        for (int i = from; i < pointsCount; i++) {
+            area[i] = area[i - 1] + (yValues[i - 1] + yValues[i]) * (xValues[i] - xValues[i - 1]) / 2.0;
+        }
+        areaPrefix = new AreaPrefix(area, pointsCount);
+        return area;
+    }
+
+    // Неизменяемая накопленная площадь: верны первые validCount элементов area
+    private static final class AreaPrefix {
+        private final double[] area;
+        private final int validCount;
+
+        AreaPrefix(double[] area, int validCount) {
+            this.area = area;
+            this.validCount = validCount;
+        }
+    }
+
+    // Точный интеграл функции на отрезке [left, right] за O(log n): отрезки,
+    // содержащие концы, находятся поиском, площадь между ними берётся из
+    // накопленных сумм, крайние участки досчитываются по интерполированным значениям
+    public double integrate(double left, double right) {
+        if (left < getLeftDomainBorder() || right > getRightDomainBorder()) {
+            throw new IllegalArgumentException(
+                "Интервал интегрирования [" + left + ", " + right + "] " +
+                "выходит за область определения функции [" + 
+                getLeftDomainBorder() + ", " + getRightDomainBorder() + "]"
+            );
+        }
+        if (left >= right) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        
+        IntervalLocator locator = locator();
+        int i = locator.locate(left);
+        int j = locator.locate(right);
+        double leftY = valueInSegment(i, left);
+        double rightY = valueInSegment(j, right);
+        if (i == j) {
+            return (leftY + rightY) * (right - left) / 2.0;
+        }
+        
+        // Участок от left до x(i+1), узлы x(i+1)..x(j), участок от x(j) до right
+        double head = (leftY + yValues[i + 1]) * (xValues[i + 1] - left) / 2.0;
+        double[] area = cumulativeArea();
+        double middle = area[j] - area[i + 1];
+        double tail = (yValues[j] + rightY) * (right - xValues[j]) / 2.0;
+        return head + middle + tail;
     }
     
     public int getPointsCount() {
@@ -125,7 +296,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
         }
-        return new FunctionPoint(points[index]);
+        return new FunctionPoint(xValues[index], yValues[index]);
     }
 
     public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
@@ -135,14 +306,17 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
         
         // Проверка упорядоченности точек
-        if (index > 0 && point.getX() <= points[index-1].getX()) {
+        if (index > 0 && point.getX() <= xValues[index-1]) {
             throw new InappropriateFunctionPointException("X координата точки должна быть больше предыдущей");
         }
-        if (index < pointsCount - 1 && point.getX() >= points[index+1].getX()) {
+        if (index < pointsCount - 1 && point.getX() >= xValues[index+1]) {
             throw new InappropriateFunctionPointException("X координата точки должна быть меньше следующей");
         }
         
-        points[index] = new FunctionPoint(point);
+        xValues[index] = point.getX();
+        yValues[index] = point.getY();
+        invalidateLookup();
+        invalidateArea(index);
     }
     
     public double getPointX(int index){
@@ -150,7 +324,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
         }
-        return points[index].getX();
+        return xValues[index];
     }
 
     public void setPointX(int index, double x) throws InappropriateFunctionPointException {
@@ -160,14 +334,16 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
         
         // Проверка упорядоченности точек
-        if (index > 0 && x <= points[index-1].getX()) {
+        if (index > 0 && x <= xValues[index-1]) {
             throw new InappropriateFunctionPointException("X координата должна быть больше предыдущей");
         }
-        if (index < pointsCount - 1 && x >= points[index+1].getX()) {
+        if (index < pointsCount - 1 && x >= xValues[index+1]) {
             throw new InappropriateFunctionPointException("X координата должна быть меньше следующей");
         }
         
-        points[index].setX(x);
+        xValues[index] = x;
+        invalidateLookup();
+        invalidateArea(index);
     }
 
     public double getPointY(int index){
@@ -175,7 +351,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
         }
-        return points[index].getY();
+        return yValues[index];
     }
 
     public void setPointY(int index, double y){
@@ -183,7 +359,8 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
         }
-        points[index].setY(y);
+        yValues[index] = y;
+        invalidateArea(index);
     }
 
     public void deletePoint(int index){
@@ -198,48 +375,55 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
         
         if (pointsCount - 1 - index >= 0) {
-            System.arraycopy(points, index + 1, points, index, pointsCount - 1 - index);
+            System.arraycopy(xValues, index + 1, xValues, index, pointsCount - 1 - index);
+            System.arraycopy(yValues, index + 1, yValues, index, pointsCount - 1 - index);
         }
         pointsCount--;
-        points[pointsCount] = null;
+        invalidateLookup();
+        invalidateArea(index);
     }
 
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
-        FunctionPoint newPoint = new FunctionPoint(point);
-        double newX = newPoint.getX();
+        double newX = point.getX();
+        double newY = point.getY();
         
         // Проверяем, не существует ли уже точка с таким X
         for (int i = 0; i < pointsCount; i++) {
-            if (Math.abs(points[i].getX() - newX) < EPSILON) {
+            if (Math.abs(xValues[i] - newX) < EPSILON) {
                 throw new InappropriateFunctionPointException("Точка с таким X уже существует");
             }
         }
         
-        // Создаем новый массив на 1 элемент больше
-        FunctionPoint[] newArray = new FunctionPoint[pointsCount + 1];
-        
         // Находим позицию для вставки
         int insertIndex = 0;
-        while (insertIndex < pointsCount && points[insertIndex].getX() < newX) {
+        while (insertIndex < pointsCount && xValues[insertIndex] < newX) {
             insertIndex++;
         }
         
-        // Копируем элементы до позиции вставки с помощью System.arraycopy
-        if (insertIndex > 0) {
-            System.arraycopy(points, 0, newArray, 0, insertIndex);
+        // При нехватке места увеличиваем массивы вдвое, чтобы серия добавлений
+        // не копировала массивы на каждом шаге
+        if (pointsCount == xValues.length) {
+            int newCapacity = Math.max(pointsCount * 2, pointsCount + 1);
+            double[] newXValues = new double[newCapacity];
+            double[] newYValues = new double[newCapacity];
+            System.arraycopy(xValues, 0, newXValues, 0, insertIndex);
+            System.arraycopy(yValues, 0, newYValues, 0, insertIndex);
+            System.arraycopy(xValues, insertIndex, newXValues, insertIndex + 1, pointsCount - insertIndex);
+            System.arraycopy(yValues, insertIndex, newYValues, insertIndex + 1, pointsCount - insertIndex);
+            xValues = newXValues;
+            yValues = newYValues;
+        } else {
+            // Сдвигаем хвост массивов на одну позицию вправо
+            System.arraycopy(xValues, insertIndex, xValues, insertIndex + 1, pointsCount - insertIndex);
+            System.arraycopy(yValues, insertIndex, yValues, insertIndex + 1, pointsCount - insertIndex);
         }
         
         // Вставляем новую точку
-        newArray[insertIndex] = newPoint;
-        
-        // Копируем элементы после позиции вставки с помощью System.arraycopy
-        if (pointsCount - insertIndex > 0) {
-            System.arraycopy(points, insertIndex, newArray, insertIndex + 1, pointsCount - insertIndex);
-        }
-        
-        // Заменяем старый массив новым
-        points = newArray;
+        xValues[insertIndex] = newX;
+        yValues[insertIndex] = newY;
         pointsCount++;
+        invalidateLookup();
+        invalidateArea(insertIndex);
     }
 
     // Лаборатная №5
@@ -250,7 +434,8 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
         for (int i = 0; i < pointsCount; i++) {
-            sb.append(points[i].toString()); // Используем toString() точки
+            // Формат совпадает с FunctionPoint.toString()
+            sb.append("(").append(xValues[i]).append("; ").append(yValues[i]).append(")");
             if (i < pointsCount - 1) {
                 sb.append(", ");
             }
@@ -272,8 +457,10 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         
         if (o instanceof ArrayTabulatedFunction) {
             ArrayTabulatedFunction arrayThat = (ArrayTabulatedFunction) o;
+            // Сравнение координат с той же точностью, что и в FunctionPoint.equals()
             for (int i = 0; i < pointsCount; i++) {
-                if (!this.points[i].equals(arrayThat.points[i])) {
+                if (Math.abs(this.xValues[i] - arrayThat.xValues[i]) >= EPSILON
+                        || Math.abs(this.yValues[i] - arrayThat.yValues[i]) >= EPSILON) {
                     return false;
                 }
             }
@@ -297,22 +484,27 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
     public int hashCode() {
         int hash = pointsCount; // Начинаем с количества точек
         for (int i = 0; i < pointsCount; i++) {
-            hash ^= points[i].hashCode();
+            hash ^= pointHashCode(xValues[i], yValues[i]);
         }
         
         return hash;
     }
 
+    // Хэш-код точки, совпадающий с FunctionPoint.hashCode(), но без создания объекта
+    private static int pointHashCode(double x, double y) {
+        long xBits = Double.doubleToLongBits(x);
+        long yBits = Double.doubleToLongBits(y);
+        return (int) xBits ^ (int) (xBits >>> 32) ^ (int) yBits ^ (int) (yBits >>> 32);
+    }
+
     // Переопределение метода clone()
     @Override
     public Object clone() {
-        double leftX = points[0].getX();
-        double rightX = points[pointsCount - 1].getX();
-        double[] values = new double[pointsCount];
-        for (int i = 0; i < pointsCount; i++) {
-            values[i] = points[i].getY();
-        }
-        ArrayTabulatedFunction cloneFunc = new ArrayTabulatedFunction(leftX, rightX, values);
+        // Копируем массивы координат целиком, чтобы сохранить и неравномерную сетку
+        ArrayTabulatedFunction cloneFunc = new ArrayTabulatedFunction(
+            xValues[0], xValues[pointsCount - 1], pointsCount);
+        System.arraycopy(xValues, 0, cloneFunc.xValues, 0, pointsCount);
+        System.arraycopy(yValues, 0, cloneFunc.yValues, 0, pointsCount);
         return cloneFunc;
     }
     // Лабораторная №7
@@ -332,7 +524,9 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
                     throw new NoSuchElementException("Нет следующего элемента");
                 }
                 // Возвращаем копию точки, чтобы не нарушить инкапсуляцию
-                return new FunctionPoint(points[currentIndex++]);
+                FunctionPoint point = new FunctionPoint(xValues[currentIndex], yValues[currentIndex]);
+                currentIndex++;
+                return point;
             }
             
             @Override
@@ -358,6 +552,12 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         public TabulatedFunction createTabulatedFunction(FunctionPoint[] points) {
             return new ArrayTabulatedFunction(points);
         }
+        
+        // Массивы используются функцией напрямую, без объектов FunctionPoint
+        @Override
+        public TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+            return wrap(xValues, yValues);
+        }
     }
     
 }
\ No newline at end of file
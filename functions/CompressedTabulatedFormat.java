@@ -0,0 +1,373 @@
+package functions;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Сжатый поколоночный формат табулированной функции (порядок байтов little-endian):
+//   заголовок HEADER_SIZE байт: сигнатура "TABC", версия, способ кодирования
+//   абсцисс, способ кодирования ординат, резервный байт, количество точек (int),
+//   длина данных в байтах (int);
+//   данные: блок абсцисс, затем блок ординат (каждый выровнен по байту);
+//   CRC32 заголовка и данных (int).
+// Абсциссы равномерной сетки хранятся левой границей и шагом, остальные -
+// разностями второго порядка битовых представлений (zigzag + varint).
+// Ординаты кодируются XOR с предыдущим значением, как в Gorilla: совпадающее
+// значение занимает 1 бит, у остальных хранятся только значащие биты XOR.
+// Сжатие без потерь: значения восстанавливаются побитово.
+final class CompressedTabulatedFormat {
+    static final int MAGIC = 0x43424154;
+    static final int VERSION = 1;
+    // Способы кодирования абсцисс
+    static final int X_UNIFORM = 0;
+    static final int X_DELTA_OF_DELTA = 1;
+    // Способ кодирования ординат
+    static final int Y_XOR = 0;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int CHECKSUM_SIZE = 4;
+
+    // Приватный конструктор чтобы нельзя было создать объект класса
+    private CompressedTabulatedFormat() {
+        throw new AssertionError("Нельзя создать объект класса CompressedTabulatedFormat");
+    }
+
+    static void write(TabulatedFunction function, OutputStream out) throws IOException {
+        int count = function.getPointsCount();
+        double[] xValues;
+        double[] yValues;
+        if (function instanceof ArrayTabulatedFunction) {
+            xValues = ((ArrayTabulatedFunction) function).internalXValues();
+            yValues = ((ArrayTabulatedFunction) function).internalYValues();
+        } else {
+            xValues = new double[count];
+            yValues = new double[count];
+            for (int i = 0; i < count; i++) {
+                xValues[i] = function.getPointX(i);
+                yValues[i] = function.getPointY(i);
+            }
+        }
+
+        BitOutput payload = new BitOutput(count * 4 + 32);
+        int xEncoding;
+        double step = uniformStep(xValues, count);
+        if (step == step) {
+            xEncoding = X_UNIFORM;
+            payload.writeBits(Double.doubleToRawLongBits(xValues[0]), 64);
+            payload.writeBits(Double.doubleToRawLongBits(step), 64);
+        } else {
+            xEncoding = X_DELTA_OF_DELTA;
+            encodeDeltaOfDelta(xValues, count, payload);
+        }
+        payload.alignToByte();
+        encodeXor(yValues, count, payload);
+        payload.alignToByte();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).put((byte) VERSION).put((byte) xEncoding).put((byte) Y_XOR).put((byte) 0)
+            .putInt(count).putInt(payload.length());
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, HEADER_SIZE);
+        crc.update(payload.bytes(), 0, payload.length());
+        ByteBuffer checksum = ByteBuffer.allocate(CHECKSUM_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        checksum.putInt((int) crc.getValue());
+
+        out.write(header.array());
+        out.write(payload.bytes(), 0, payload.length());
+        out.write(checksum.array());
+        out.flush();
+    }
+
+    static TabulatedFunction read(InputStream in, TabulatedFunctionFactory factory) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        byte[] headerBytes = new byte[HEADER_SIZE];
+        dataIn.readFully(headerBytes);
+        ByteBuffer header = ByteBuffer.wrap(headerBytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Неверная сигнатура сжатого файла табулированной функции");
+        }
+        int version = header.get();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия формата: " + version);
+        }
+        int xEncoding = header.get();
+        int yEncoding = header.get();
+        header.get();
+        int count = header.getInt();
+        int length = header.getInt();
+        if (xEncoding != X_UNIFORM && xEncoding != X_DELTA_OF_DELTA) {
+            throw new IOException("Неизвестный способ кодирования абсцисс: " + xEncoding);
+        }
+        if (yEncoding != Y_XOR) {
+            throw new IOException("Неизвестный способ кодирования ординат: " + yEncoding);
+        }
+        if (count < 0 || length < 0) {
+            throw new IOException("Повреждённый заголовок сжатого файла табулированной функции");
+        }
+
+        byte[] payload = new byte[length];
+        dataIn.readFully(payload);
+        byte[] checksumBytes = new byte[CHECKSUM_SIZE];
+        dataIn.readFully(checksumBytes);
+        CRC32 crc = new CRC32();
+        crc.update(headerBytes, 0, HEADER_SIZE);
+        crc.update(payload, 0, length);
+        int expected = ByteBuffer.wrap(checksumBytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        if ((int) crc.getValue() != expected) {
+            throw new IOException("Контрольная сумма сжатого файла табулированной функции не совпадает");
+        }
+
+        BitInput input = new BitInput(payload);
+        double[] xValues = new double[count];
+        if (xEncoding == X_UNIFORM) {
+            double left = Double.longBitsToDouble(input.readBits(64));
+            double step = Double.longBitsToDouble(input.readBits(64));
+            for (int i = 0; i < count; i++) {
+                xValues[i] = left + i * step;
+            }
+        } else {
+            decodeDeltaOfDelta(input, xValues);
+        }
+        input.alignToByte();
+        double[] yValues = new double[count];
+        decodeXor(input, yValues);
+
+        // Используем фабрику вместо явного создания
+        return factory.createTabulatedFunction(xValues, yValues);
+    }
+
+    // Шаг, с которым все абсциссы совпадают побитово с left + i * step
+    // (так строит сетку конструктор ArrayTabulatedFunction), или NaN
+    private static double uniformStep(double[] xValues, int count) {
+        if (count < 2) {
+            return Double.NaN;
+        }
+        double left = xValues[0];
+        double[] candidates = {
+            (xValues[count - 1] - left) / (count - 1),
+            xValues[1] - left
+        };
+        for (double step : candidates) {
+            boolean uniform = true;
+            for (int i = 0; uniform && i < count; i++) {
+                uniform = Double.doubleToRawLongBits(xValues[i]) == Double.doubleToRawLongBits(left + i * step);
+            }
+            if (uniform) {
+                return step;
+            }
+        }
+        return Double.NaN;
+    }
+
+    // Первое значение целиком, затем разность битовых представлений соседних
+    // значений и далее изменения этой разности в кодировке zigzag + varint
+    private static void encodeDeltaOfDelta(double[] values, int count, BitOutput out) {
+        if (count == 0) {
+            return;
+        }
+        long previous = Double.doubleToRawLongBits(values[0]);
+        out.writeBits(previous, 64);
+        long previousDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long current = Double.doubleToRawLongBits(values[i]);
+            long delta = current - previous;
+            out.writeVarLong(zigzag(delta - previousDelta));
+            previousDelta = delta;
+            previous = current;
+        }
+    }
+
+    private static void decodeDeltaOfDelta(BitInput in, double[] values) throws IOException {
+        if (values.length == 0) {
+            return;
+        }
+        long previous = in.readBits(64);
+        values[0] = Double.longBitsToDouble(previous);
+        long previousDelta = 0;
+        for (int i = 1; i < values.length; i++) {
+            long delta = previousDelta + unzigzag(in.readVarLong());
+            previous += delta;
+            values[i] = Double.longBitsToDouble(previous);
+            previousDelta = delta;
+        }
+    }
+
+    // Первое значение целиком; далее '0' - значение совпадает с предыдущим,
+    // '10' - значащие биты XOR помещаются в окно предыдущего значения,
+    // '11' - новое окно: 6 бит ведущих нулей, 6 бит длины - 1, значащие биты
+    private static void encodeXor(double[] values, int count, BitOutput out) {
+        if (count == 0) {
+            return;
+        }
+        long previous = Double.doubleToRawLongBits(values[0]);
+        out.writeBits(previous, 64);
+        int windowLeading = -1;
+        int windowTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            long current = Double.doubleToRawLongBits(values[i]);
+            long xor = current ^ previous;
+            if (xor == 0) {
+                out.writeBits(0, 1);
+            } else {
+                int leading = Long.numberOfLeadingZeros(xor);
+                int trailing = Long.numberOfTrailingZeros(xor);
+                if (windowLeading >= 0 && leading >= windowLeading && trailing >= windowTrailing) {
+                    out.writeBits(0b10, 2);
+                    out.writeBits(xor >>> windowTrailing, 64 - windowLeading - windowTrailing);
+                } else {
+                    int length = 64 - leading - trailing;
+                    out.writeBits(0b11, 2);
+                    out.writeBits(leading, 6);
+                    out.writeBits(length - 1, 6);
+                    out.writeBits(xor >>> trailing, length);
+                    windowLeading = leading;
+                    windowTrailing = trailing;
+                }
+            }
+            previous = current;
+        }
+    }
+
+    private static void decodeXor(BitInput in, double[] values) throws IOException {
+        if (values.length == 0) {
+            return;
+        }
+        long previous = in.readBits(64);
+        values[0] = Double.longBitsToDouble(previous);
+        int windowLeading = 0;
+        int windowTrailing = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (in.readBits(1) != 0) {
+                if (in.readBits(1) != 0) {
+                    windowLeading = (int) in.readBits(6);
+                    int length = (int) in.readBits(6) + 1;
+                    windowTrailing = 64 - windowLeading - length;
+                    if (windowTrailing < 0) {
+                        throw new IOException("Повреждённые данные сжатого файла табулированной функции");
+                    }
+                }
+                previous ^= in.readBits(64 - windowLeading - windowTrailing) << windowTrailing;
+            }
+            values[i] = Double.longBitsToDouble(previous);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long mask(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    // Запись битов от старшего к младшему в расширяемый массив байтов
+    private static final class BitOutput {
+        private byte[] bytes;
+        private int length;
+        private long accumulator;
+        private int accumulatedBits;
+
+        BitOutput(int capacity) {
+            bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        void writeBits(long value, int bits) {
+            if (bits > 56) {
+                writeBits(value >>> 32, bits - 32);
+                writeBits(value, 32);
+                return;
+            }
+            accumulator = (accumulator << bits) | (value & mask(bits));
+            accumulatedBits += bits;
+            while (accumulatedBits >= 8) {
+                accumulatedBits -= 8;
+                put((byte) (accumulator >>> accumulatedBits));
+            }
+        }
+
+        // Целое без знака группами по 7 бит, младшие группы первыми
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeBits((value & 0x7F) | 0x80, 8);
+                value >>>= 7;
+            }
+            writeBits(value, 8);
+        }
+
+        // Дополняет последний байт нулевыми битами
+        void alignToByte() {
+            if (accumulatedBits > 0) {
+                writeBits(0, 8 - accumulatedBits);
+            }
+        }
+
+        private void put(byte value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = value;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int length() {
+            return length;
+        }
+    }
+
+    // Чтение битов в порядке записи BitOutput
+    private static final class BitInput {
+        private final byte[] bytes;
+        private int position;
+        private long accumulator;
+        private int accumulatedBits;
+
+        BitInput(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readBits(int bits) throws IOException {
+            if (bits > 56) {
+                long high = readBits(bits - 32);
+                return (high << 32) | readBits(32);
+            }
+            while (accumulatedBits < bits) {
+                if (position == bytes.length) {
+                    throw new EOFException("Неожиданный конец данных сжатого файла табулированной функции");
+                }
+                accumulator = (accumulator << 8) | (bytes[position++] & 0xFF);
+                accumulatedBits += 8;
+            }
+            accumulatedBits -= bits;
+            return (accumulator >>> accumulatedBits) & mask(bits);
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                long group = readBits(8);
+                value |= (group & 0x7F) << shift;
+                if ((group & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Повреждённые данные сжатого файла табулированной функции");
+        }
+
+        void alignToByte() {
+            accumulatedBits -= accumulatedBits % 8;
+        }
+    }
+}
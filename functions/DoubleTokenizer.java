@@ -0,0 +1,284 @@
+package functions;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+
+// Потоковый разбор чисел из текста, разделённых пробельными символами.
+// Текст читается в переиспользуемый массив символов, число разбирается прямо
+// в массиве без создания строк. Если десятичная мантисса помещается в 15 цифр,
+// а порядок не превышает 22, результат получается одним точным умножением
+// или делением (быстрый путь Клингера). Мантиссы до 19 цифр переводятся
+// алгоритмом Эйзеля-Лемира по 128-битным приближениям степеней десяти;
+// в редких случаях, когда точности приближения не хватает для правильного
+// округления, как и для прочих записей (более длинные мантиссы, субнормальные
+// числа, NaN, Infinity), используется Double.parseDouble.
+final class DoubleTokenizer {
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Наибольшее количество значащих цифр, при котором мантисса точно
+    // представима в double (10^15 < 2^53)
+    private static final int MAX_FAST_DIGITS = 15;
+    // Наибольшее количество цифр, помещающееся в 64-битную мантиссу без знака
+    private static final int MAX_DIGITS = 19;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // 128-битные мантиссы степеней десяти 10^q для q из [MIN_POWER, MAX_POWER],
+    // нормализованные к старшему биту и округлённые вниз: старшие и младшие 64 бита
+    private static final int MIN_POWER = -348;
+    private static final int MAX_POWER = 347;
+    private static final long[] POWER_HIGH = new long[MAX_POWER - MIN_POWER + 1];
+    private static final long[] POWER_LOW = new long[MAX_POWER - MIN_POWER + 1];
+
+    static {
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+            BigInteger power = BigInteger.valueOf(5).pow(Math.abs(q));
+            BigInteger mantissa;
+            if (q >= 0) {
+                // Старшие 128 бит 5^q (мантисса 10^q совпадает с мантиссой 5^q)
+                mantissa = power.bitLength() > 128
+                    ? power.shiftRight(power.bitLength() - 128)
+                    : power.shiftLeft(128 - power.bitLength());
+            } else {
+                // floor(2^b / 5^|q|), где b подобрано так, что частное занимает 128 бит
+                mantissa = BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power);
+            }
+            POWER_HIGH[q - MIN_POWER] = mantissa.shiftRight(64).longValue();
+            POWER_LOW[q - MIN_POWER] = mantissa.and(mask).longValue();
+        }
+    }
+
+    private final Reader in;
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    // Начало текущей лексемы в buffer; лексема - buffer[tokenStart, position)
+    private int tokenStart;
+
+    DoubleTokenizer(Reader in) {
+        this.in = in;
+    }
+
+    // Читает следующее число; what описывает ожидаемое значение для сообщения об ошибке
+    double nextDouble(String what) throws IOException {
+        if (!nextToken()) {
+            throw new IOException("Ожидалось число (" + what + ")");
+        }
+        double value = parseFast(buffer, tokenStart, position);
+        if (value == value) {
+            return value;
+        }
+        // NaN означает, что быстрый путь не применим (или в тексте записан NaN)
+        try {
+            return Double.parseDouble(new String(buffer, tokenStart, position - tokenStart));
+        } catch (NumberFormatException e) {
+            throw new IOException("Ожидалось число (" + what + ")", e);
+        }
+    }
+
+    // Находит следующую лексему; false - конец текста
+    private boolean nextToken() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return false;
+            }
+            if (buffer[position] > ' ') {
+                break;
+            }
+            position++;
+        }
+        tokenStart = position;
+        while (true) {
+            if (position == limit && !fillKeepingToken()) {
+                return true;
+            }
+            if (buffer[position] <= ' ') {
+                return true;
+            }
+            position++;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        position = 0;
+        limit = 0;
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    // Дочитывает текст, сохраняя начало лексемы: лексема переносится в начало
+    // буфера, а если она занимает весь буфер, буфер увеличивается вдвое
+    private boolean fillKeepingToken() throws IOException {
+        int length = limit - tokenStart;
+        if (length == buffer.length) {
+            char[] larger = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, larger, 0, length);
+            buffer = larger;
+        } else {
+            System.arraycopy(buffer, tokenStart, buffer, 0, length);
+        }
+        tokenStart = 0;
+        position = length;
+        limit = length;
+        int read;
+        do {
+            read = in.read(buffer, limit, buffer.length - limit);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    // Разбирает десятичную запись вида [+-]цифры[.цифры][(e|E)[+-]цифры].
+    // Возвращает NaN, если запись другая или результат нельзя получить точно
+    static double parseFast(char[] chars, int from, int to) {
+        int p = from;
+        boolean negative = false;
+        if (p < to && (chars[p] == '-' || chars[p] == '+')) {
+            negative = chars[p] == '-';
+            p++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+
+        while (p < to && chars[p] >= '0' && chars[p] <= '9') {
+            int digit = chars[p++] - '0';
+            anyDigit = true;
+            if (mantissa != 0 || digit != 0) {
+                if (++significantDigits > MAX_DIGITS) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + digit;
+            }
+        }
+        if (p < to && chars[p] == '.') {
+            p++;
+            while (p < to && chars[p] >= '0' && chars[p] <= '9') {
+                int digit = chars[p++] - '0';
+                anyDigit = true;
+                exponent--;
+                if (mantissa != 0 || digit != 0) {
+                    if (++significantDigits > MAX_DIGITS) {
+                        return Double.NaN;
+                    }
+                    mantissa = mantissa * 10 + digit;
+                }
+            }
+        }
+        if (!anyDigit) {
+            return Double.NaN;
+        }
+        if (p < to && (chars[p] == 'e' || chars[p] == 'E')) {
+            p++;
+            boolean negativeExponent = false;
+            if (p < to && (chars[p] == '-' || chars[p] == '+')) {
+                negativeExponent = chars[p] == '-';
+                p++;
+            }
+            if (p == to) {
+                return Double.NaN;
+            }
+            int value = 0;
+            while (p < to && chars[p] >= '0' && chars[p] <= '9') {
+                // Порядки за пределами быстрого пути обрабатывает Double.parseDouble
+                if (value > 1000) {
+                    return Double.NaN;
+                }
+                value = value * 10 + (chars[p++] - '0');
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (p != to) {
+            return Double.NaN;
+        }
+
+        double result;
+        if (mantissa == 0) {
+            result = 0.0;
+        } else if (significantDigits <= MAX_FAST_DIGITS && exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            result = mantissa * POWERS_OF_TEN[exponent];
+        } else if (significantDigits <= MAX_FAST_DIGITS && exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            result = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            result = eiselLemire(mantissa, exponent);
+        }
+        return negative ? -result : result;
+    }
+
+    // Переводит mantissa * 10^exponent (mantissa - ненулевое число без знака)
+    // в ближайшее double. Возвращает NaN, если 128-битного приближения
+    // недостаточно для однозначного округления или результат не является
+    // нормализованным конечным числом
+    private static double eiselLemire(long mantissa, int exponent) {
+        if (exponent < MIN_POWER || exponent > MAX_POWER) {
+            return Double.NaN;
+        }
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        mantissa <<= leadingZeros;
+        long binaryExponent = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+
+        // Произведение мантиссы на старшие 64 бита степени десяти
+        long high = POWER_HIGH[exponent - MIN_POWER];
+        long productHigh = unsignedMultiplyHigh(mantissa, high);
+        long productLow = mantissa * high;
+
+        // Если младшие биты результата неоднозначны, учитываются младшие 64 бита степени
+        if ((productHigh & 0x1FF) == 0x1FF && Long.compareUnsigned(productLow + mantissa, mantissa) < 0) {
+            long low = POWER_LOW[exponent - MIN_POWER];
+            long lowHigh = unsignedMultiplyHigh(mantissa, low);
+            long lowLow = mantissa * low;
+            long mergedHigh = productHigh;
+            long mergedLow = productLow + lowHigh;
+            if (Long.compareUnsigned(mergedLow, productLow) < 0) {
+                mergedHigh++;
+            }
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow + 1 == 0
+                    && Long.compareUnsigned(lowLow + mantissa, mantissa) < 0) {
+                return Double.NaN;
+            }
+            productHigh = mergedHigh;
+            productLow = mergedLow;
+        }
+
+        // Старшие 54 бита произведения
+        long msb = productHigh >>> 63;
+        long result = productHigh >>> (msb + 9);
+        binaryExponent -= 1 ^ msb;
+
+        // Значение ровно посередине между двумя double: нужен точный разбор
+        if (productLow == 0 && (productHigh & 0x1FF) == 0 && (result & 3) == 1) {
+            return Double.NaN;
+        }
+
+        // Округление от 54 до 53 бит
+        result += result & 1;
+        result >>>= 1;
+        if ((result >>> 53) > 0) {
+            result >>>= 1;
+            binaryExponent++;
+        }
+        if (binaryExponent <= 0 || binaryExponent >= 0x7FF) {
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(binaryExponent << 52 | result & 0x000FFFFFFFFFFFFFL);
+    }
+
+    // Старшие 64 бита произведения двух 64-битных чисел без знака
+    private static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+}
@@ -7,4 +7,13 @@ public interface Function {
     double getRightDomainBorder();
     
     double getFunctionValue(double x);
-}
\ No newline at end of file
+
+    // Вычисляет значения функции во всех точках xs и записывает их в out
+    // (out[i] = getFunctionValue(xs[i])). Массив out должен быть не короче xs,
+    // допускается передавать один и тот же массив (out == xs).
+    default void getFunctionValues(double[] xs, double[] out) {
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = getFunctionValue(xs[i]);
+        }
+    }
+}
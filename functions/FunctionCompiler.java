@@ -0,0 +1,238 @@
+package functions;
+
+import functions.basic.*;
+import functions.meta.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// Компилятор деревьев функций в цепочку MethodHandle. Узлы functions.meta и
+// функции functions.basic превращаются в комбинаторы над статическими методами,
+// поэтому всё выражение вычисляется одной цепочкой без интерфейсных вызовов
+// (JIT специализирует горячую цепочку целиком). Прочие реализации Function
+// вызываются обычным образом через getFunctionValue().
+public final class FunctionCompiler {
+    // Тип всех скомпилированных узлов: (double)double
+    private static final MethodType UNARY = MethodType.methodType(double.class, double.class);
+    private static final MethodType BINARY = MethodType.methodType(double.class, double.class, double.class);
+
+    // Максимальная глубина встраивания: более глубокие поддеревья вычисляются
+    // собственным getFunctionValue(), чтобы цепочка не росла неограниченно
+    private static final int MAX_INLINE_DEPTH = 32;
+
+    private static final MethodHandle SIN;
+    private static final MethodHandle COS;
+    private static final MethodHandle TAN;
+    private static final MethodHandle EXP;
+    private static final MethodHandle POW;
+    private static final MethodHandle LOG;
+    private static final MethodHandle ADD;
+    private static final MethodHandle SUB;
+    private static final MethodHandle MUL;
+    private static final MethodHandle DIV;
+    private static final MethodHandle IN_DOMAIN;
+    private static final MethodHandle GET_FUNCTION_VALUE;
+    private static final MethodHandle NAN;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SIN = lookup.findStatic(Math.class, "sin", UNARY);
+            COS = lookup.findStatic(Math.class, "cos", UNARY);
+            TAN = lookup.findStatic(Math.class, "tan", UNARY);
+            EXP = lookup.findStatic(Math.class, "exp", UNARY);
+            POW = lookup.findStatic(Math.class, "pow", BINARY);
+            LOG = lookup.findStatic(FunctionCompiler.class, "log", BINARY);
+            ADD = lookup.findStatic(FunctionCompiler.class, "add", BINARY);
+            SUB = lookup.findStatic(FunctionCompiler.class, "sub", BINARY);
+            MUL = lookup.findStatic(FunctionCompiler.class, "mul", BINARY);
+            DIV = lookup.findStatic(FunctionCompiler.class, "div", BINARY);
+            IN_DOMAIN = lookup.findStatic(FunctionCompiler.class, "inDomain",
+                MethodType.methodType(boolean.class, double.class, double.class, double.class));
+            GET_FUNCTION_VALUE = lookup.findVirtual(Function.class, "getFunctionValue", UNARY);
+            NAN = MethodHandles.dropArguments(
+                MethodHandles.constant(double.class, Double.NaN), 0, double.class);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Приватный конструктор чтобы нельзя было создать объект класса
+    private FunctionCompiler() {
+        throw new AssertionError("Нельзя создать объект класса FunctionCompiler");
+    }
+
+    // Компилирует дерево функций; результат вычисляет те же значения,
+    // что и исходная функция, и имеет ту же область определения
+    public static Function compile(Function function) {
+        return new CompiledFunction(function, toHandle(function, 0));
+    }
+
+    // Строит цепочку MethodHandle типа (double)double для узла дерева
+    private static MethodHandle toHandle(Function function, int depth) {
+        Class<?> type = function.getClass();
+        int next = depth + 1;
+        if (type == Sin.class) {
+            return SIN;
+        }
+        if (type == Cos.class) {
+            return COS;
+        }
+        if (type == Tan.class) {
+            return TAN;
+        }
+        if (type == Exp.class) {
+            return EXP;
+        }
+        if (type == Log.class) {
+            return MethodHandles.insertArguments(LOG, 1, Math.log(((Log) function).getBase()));
+        }
+        if (depth >= MAX_INLINE_DEPTH && isMetaFunction(type)) {
+            return GET_FUNCTION_VALUE.bindTo(function);
+        }
+        if (type == Shift.class) {
+            Shift shift = (Shift) function;
+            MethodHandle body = MethodHandles.filterArguments(toHandle(shift.getFunction(), next), 0,
+                MethodHandles.insertArguments(SUB, 1, shift.getShiftX()));
+            body = MethodHandles.filterReturnValue(body,
+                MethodHandles.insertArguments(ADD, 1, shift.getShiftY()));
+            return guard(function, body);
+        }
+        if (type == Scale.class) {
+            Scale scale = (Scale) function;
+            MethodHandle body = MethodHandles.filterArguments(toHandle(scale.getFunction(), next), 0,
+                MethodHandles.insertArguments(DIV, 1, scale.getScaleX()));
+            body = MethodHandles.filterReturnValue(body,
+                MethodHandles.insertArguments(MUL, 1, scale.getScaleY()));
+            return guard(function, body);
+        }
+        if (type == Affine.class) {
+            Affine affine = (Affine) function;
+            MethodHandle argument = MethodHandles.filterReturnValue(
+                MethodHandles.insertArguments(SUB, 1, affine.getShiftX()),
+                MethodHandles.insertArguments(DIV, 1, affine.getScaleX()));
+            MethodHandle body = MethodHandles.filterArguments(toHandle(affine.getFunction(), next), 0, argument);
+            body = MethodHandles.filterReturnValue(body,
+                MethodHandles.insertArguments(MUL, 1, affine.getScaleY()));
+            body = MethodHandles.filterReturnValue(body,
+                MethodHandles.insertArguments(ADD, 1, affine.getShiftY()));
+            return guard(function, body);
+        }
+        if (type == Power.class) {
+            Power power = (Power) function;
+            MethodHandle body = MethodHandles.filterReturnValue(toHandle(power.getFunction(), next),
+                MethodHandles.insertArguments(POW, 1, power.getPower()));
+            return guard(function, body);
+        }
+        if (type == Sum.class) {
+            Sum sum = (Sum) function;
+            return guard(function, both(ADD, sum.getFirstFunction(), sum.getSecondFunction(), next));
+        }
+        if (type == Mult.class) {
+            Mult mult = (Mult) function;
+            return guard(function, both(MUL, mult.getFirstFunction(), mult.getSecondFunction(), next));
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            Function outer = composition.getSecondFunction();
+            MethodHandle body = MethodHandles.filterArguments(guard(outer, toHandle(outer, next)), 0,
+                toHandle(composition.getFirstFunction(), next));
+            return guard(function, body);
+        }
+        if (function instanceof CompiledFunction) {
+            return ((CompiledFunction) function).handle;
+        }
+        // Неизвестная реализация вызывается через интерфейс
+        return GET_FUNCTION_VALUE.bindTo(function);
+    }
+
+    private static boolean isMetaFunction(Class<?> type) {
+        return type == Shift.class || type == Scale.class || type == Affine.class || type == Power.class
+            || type == Sum.class || type == Mult.class || type == Composition.class;
+    }
+
+    // Вычисляет operation(f1(x), f2(x))
+    private static MethodHandle both(MethodHandle operation, Function f1, Function f2, int depth) {
+        MethodHandle combined = MethodHandles.filterArguments(operation, 0,
+            toHandle(f1, depth), toHandle(f2, depth));
+        return MethodHandles.permuteArguments(combined, UNARY, 0, 0);
+    }
+
+    // Возвращает NaN вне области определения функции, иначе вычисляет body
+    private static MethodHandle guard(Function function, MethodHandle body) {
+        double left = function.getLeftDomainBorder();
+        double right = function.getRightDomainBorder();
+        if (left == Double.NEGATIVE_INFINITY && right == Double.POSITIVE_INFINITY) {
+            // Для всей числовой прямой проверка x < left || x > right всегда ложна
+            return body;
+        }
+        MethodHandle test = MethodHandles.insertArguments(IN_DOMAIN, 1, left, right);
+        return MethodHandles.guardWithTest(test, body, NAN);
+    }
+
+    private static boolean inDomain(double x, double left, double right) {
+        return !(x < left || x > right);
+    }
+
+    private static double log(double x, double logBase) {
+        if (x <= 0) {
+            return Double.NaN;
+        }
+        return Math.log(x) / logBase;
+    }
+
+    private static double add(double a, double b) {
+        return a + b;
+    }
+
+    private static double sub(double a, double b) {
+        return a - b;
+    }
+
+    private static double mul(double a, double b) {
+        return a * b;
+    }
+
+    private static double div(double a, double b) {
+        return a / b;
+    }
+
+    // Результат компиляции: функция, вычисляемая цепочкой MethodHandle
+    private static final class CompiledFunction implements Function {
+        private final MethodHandle handle;
+        private final double leftDomainBorder;
+        private final double rightDomainBorder;
+
+        CompiledFunction(Function source, MethodHandle handle) {
+            this.handle = handle;
+            this.leftDomainBorder = source.getLeftDomainBorder();
+            this.rightDomainBorder = source.getRightDomainBorder();
+        }
+
+        public double getLeftDomainBorder() {
+            return leftDomainBorder;
+        }
+
+        public double getRightDomainBorder() {
+            return rightDomainBorder;
+        }
+
+        public double getFunctionValue(double x) {
+            try {
+                return (double) handle.invokeExact(x);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Ошибка при вычислении скомпилированной функции", e);
+            }
+        }
+
+        @Override
+        public void getFunctionValues(double[] xs, double[] out) {
+            for (int i = 0; i < xs.length; i++) {
+                out[i] = getFunctionValue(xs[i]);
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package functions;
 
 import functions.meta.*;
 
+import java.util.concurrent.ForkJoinPool;
+
 // Вспомогательный класс со статическими методами для работы с функциями
 public class Functions {
     
@@ -40,6 +42,12 @@ public class Functions {
         return new Composition(f1, f2);
     }
 
+    // Возвращает упрощённое дерево функций: свёрнутые сдвиги и масштабы,
+    // степени и константы, общие узлы для повторяющихся поддеревьев
+    public static Function simplify(Function f) {
+        return Simplifier.simplify(f);
+    }
+
     // Лабораторная 6
     public static double integrate(Function function, double left, double right, double step) {
         // Проверка границ области определения
@@ -59,6 +67,18 @@ public class Functions {
             throw new IllegalArgumentException("Шаг должен быть положительным");
         }
         
+        // Табулированная функция кусочно-линейна: интеграл вычисляется точно
+        // по узлам, шаг не нужен
+        if (function instanceof TabulatedFunction) {
+            return TabulatedFunctions.integrate((TabulatedFunction) function, left, right);
+        }
+        
+        // Для функции с известной первообразной - формула Ньютона-Лейбница
+        if (function instanceof Integrable && ((Integrable) function).hasAntiderivative(left, right)) {
+            Integrable integrable = (Integrable) function;
+            return integrable.getAntiderivativeValue(right) - integrable.getAntiderivativeValue(left);
+        }
+        
         double integral = 0.0;
         double x1 = left;
         double f1 = function.getFunctionValue(x1);
@@ -78,4 +98,86 @@ public class Functions {
         
         return integral;
     }
+
+    // Количество вычислений значения функции, которое выполнит
+    // integrate(function, left, right, step): ноль для функций с известной
+    // первообразной, два (значения на концах) для табулированных функций,
+    // иначе число узлов сетки с шагом step
+    public static double integrationEvaluations(Function function, double left, double right, double step) {
+        if (function instanceof TabulatedFunction) {
+            return 2;
+        }
+        if (function instanceof Integrable && ((Integrable) function).hasAntiderivative(left, right)) {
+            return 0;
+        }
+        return Math.ceil((right - left) / step) + 1;
+    }
+
+    // Адаптивное интегрирование (Гаусс-Кронрод 7/15): отрезки делятся там, где
+    // погрешность велика, пока оценка погрешности не станет меньше
+    // max(absTolerance, relTolerance * |интеграл|) или число вычислений функции
+    // не достигнет maxEvaluations
+    public static IntegrationResult integrateAdaptive(Function function, double left, double right,
+                                                      double absTolerance, double relTolerance,
+                                                      long maxEvaluations) {
+        // Проверка границ области определения
+        if (left < function.getLeftDomainBorder() || right > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException(
+                "Интервал интегрирования [" + left + ", " + right + "] " +
+                "выходит за область определения функции [" + 
+                function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]"
+            );
+        }
+        
+        if (left >= right) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        
+        if (absTolerance < 0 || relTolerance < 0 || (absTolerance == 0 && relTolerance == 0)) {
+            throw new IllegalArgumentException("Допуски должны быть неотрицательными и не оба равны нулю");
+        }
+        
+        if (maxEvaluations < AdaptiveIntegrator.POINTS_PER_SEGMENT) {
+            throw new IllegalArgumentException(
+                "Бюджет вычислений должен быть не меньше " + AdaptiveIntegrator.POINTS_PER_SEGMENT);
+        }
+        
+        return AdaptiveIntegrator.integrate(function, left, right, absTolerance, relTolerance, maxEvaluations);
+    }
+
+    // Параллельное интегрирование методом трапеций с шагом step на общем пуле
+    // ForkJoinPool. Функция должна допускать одновременное вычисление значений
+    // из нескольких потоков
+    public static double integrateParallel(Function function, double left, double right, double step) {
+        return integrateParallel(function, left, right, step, ForkJoinPool.commonPool());
+    }
+
+    // Параллельное интегрирование на заданном пуле. При малом количестве участков
+    // и для функций, интегрируемых точно, используется метод integrate(); иначе результат
+    // воспроизводим при заданном шаге независимо от числа потоков пула
+    public static double integrateParallel(Function function, double left, double right, double step,
+                                           ForkJoinPool pool) {
+        if (left < function.getLeftDomainBorder() || right > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException(
+                "Интервал интегрирования [" + left + ", " + right + "] " +
+                "выходит за область определения функции [" + 
+                function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]"
+            );
+        }
+        
+        if (left >= right) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        
+        if (step <= 0) {
+            throw new IllegalArgumentException("Шаг должен быть положительным");
+        }
+        
+        long segmentsCount = ParallelIntegrator.segmentsCount(left, right, step);
+        if (segmentsCount < ParallelIntegrator.PARALLEL_THRESHOLD || function instanceof TabulatedFunction
+                || (function instanceof Integrable && ((Integrable) function).hasAntiderivative(left, right))) {
+            return integrate(function, left, right, step);
+        }
+        return ParallelIntegrator.integrate(pool, function, left, right, step, segmentsCount);
+    }
 }
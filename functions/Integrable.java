@@ -0,0 +1,13 @@
+package functions;
+
+// Функция с известной первообразной. Интеграл такой функции на отрезке
+// вычисляется по формуле Ньютона-Лейбница за O(1) вместо численного метода
+public interface Integrable extends Function {
+
+    // Возвращает true, если первообразная непрерывна на всём отрезке [left, right]
+    // и интеграл можно вычислить как F(right) - F(left)
+    boolean hasAntiderivative(double left, double right);
+
+    // Значение первообразной в точке x
+    double getAntiderivativeValue(double x);
+}
@@ -0,0 +1,43 @@
+package functions;
+
+// Результат численного интегрирования: значение интеграла, оценка
+// абсолютной погрешности и количество вычислений функции
+public class IntegrationResult {
+    private final double value;
+    private final double errorEstimate;
+    private final long evaluations;
+    private final boolean converged;
+
+    public IntegrationResult(double value, double errorEstimate, long evaluations, boolean converged) {
+        this.value = value;
+        this.errorEstimate = errorEstimate;
+        this.evaluations = evaluations;
+        this.converged = converged;
+    }
+
+    // Возвращает приближённое значение интеграла
+    public double getValue() {
+        return value;
+    }
+
+    // Возвращает оценку абсолютной погрешности
+    public double getErrorEstimate() {
+        return errorEstimate;
+    }
+
+    // Возвращает количество вычислений значения функции
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    // Возвращает true, если требуемая точность достигнута в пределах бюджета вычислений
+    public boolean isConverged() {
+        return converged;
+    }
+
+    @Override
+    public String toString() {
+        return value + " ± " + errorEstimate + " (" + evaluations + " вычислений"
+            + (converged ? ")" : ", точность не достигнута)");
+    }
+}
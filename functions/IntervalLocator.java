@@ -0,0 +1,93 @@
+package functions;
+
+// Поиск отрезка табулированной функции, содержащего заданную точку.
+// Для произвольной сетки используется двоичный поиск (O(log n)),
+// для равномерной сетки индекс вычисляется напрямую (O(1)).
+final class IntervalLocator {
+    // Допустимое относительное отклонение узла от равномерной сетки
+    private static final double UNIFORM_TOLERANCE = 1e-9;
+
+    private double[] xValues;
+    private int pointsCount;
+
+    // Признак того, что после изменения сетки её нужно проанализировать заново.
+    // Сбрасывается последним, после записи результатов анализа, поэтому поток,
+    // увидевший dirty == false, видит и согласованные uniform, leftX и step
+    private volatile boolean dirty = true;
+    private boolean uniform;
+    private double leftX;
+    private double step;
+
+    // Подключает массив абсцисс (массив не копируется)
+    void reset(double[] xValues, int pointsCount) {
+        this.xValues = xValues;
+        this.pointsCount = pointsCount;
+        this.dirty = true;
+    }
+
+    // Возвращает индекс i наибольшего узла с xValues[i] <= x, ограниченный
+    // отрезком [0, pointsCount - 2], т.е. номер отрезка [x(i), x(i+1)].
+    // Предполагается, что x лежит в области определения функции.
+    int locate(double x) {
+        if (dirty) {
+            analyze();
+        }
+        int last = pointsCount - 2;
+        if (uniform) {
+            int i = (int) ((x - leftX) / step);
+            if (i < 0) {
+                i = 0;
+            } else if (i > last) {
+                i = last;
+            }
+            // Поправка на погрешность округления при вычислении индекса
+            while (i > 0 && xValues[i] > x) {
+                i--;
+            }
+            while (i < last && xValues[i + 1] <= x) {
+                i++;
+            }
+            return i;
+        }
+
+        int low = 0;
+        int high = last;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (xValues[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Проверяет, что точки упорядочены по неубыванию (NaN считается нарушением порядка)
+    static boolean isSorted(double[] xs) {
+        for (int k = 1; k < xs.length; k++) {
+            if (!(xs[k] >= xs[k - 1])) {
+                return false;
+            }
+        }
+        return xs.length == 0 || !Double.isNaN(xs[0]);
+    }
+
+    // Проверяет, совпадают ли узлы с равномерной сеткой от первого до последнего узла.
+    // Результат вычисляется в локальных переменных и записывается в поля целиком
+    private void analyze() {
+        double first = xValues[0];
+        double gridStep = (xValues[pointsCount - 1] - first) / (pointsCount - 1);
+        boolean isUniform = gridStep > 0;
+        double tolerance = gridStep * UNIFORM_TOLERANCE;
+        for (int i = 1; isUniform && i < pointsCount - 1; i++) {
+            if (Math.abs(xValues[i] - (first + i * gridStep)) > tolerance) {
+                isUniform = false;
+            }
+        }
+        leftX = first;
+        step = gridStep;
+        uniform = isUniform;
+        dirty = false;
+    }
+}
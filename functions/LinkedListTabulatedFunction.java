@@ -15,6 +15,12 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
     private transient FunctionNode lastAccessedNode;
     private transient int lastAccessedIndex;
     
+    // Массивы абсцисс и узлов для двоичного поиска отрезка, строятся лениво
+    // и сбрасываются при изменении списка. Строятся в локальных переменных
+    // и публикуются одной записью volatile-поля, поэтому одновременные
+    // вычисления значений из разных потоков не видят частично построенный поиск
+    private transient volatile Lookup lookup;
+    
     // Константа для сравнения вещественных чисел
     private static final double EPSILON = 1e-10;
 
@@ -197,6 +203,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         pointsCount++;
         lastAccessedNode = newNode;
         lastAccessedIndex = pointsCount - 1;
+        invalidateLookup();
         
         return newNode;
     }
@@ -228,6 +235,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         pointsCount++;
         lastAccessedNode = newNode;
         lastAccessedIndex = index;
+        invalidateLookup();
         
         return newNode;
     }
@@ -250,6 +258,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         nodeToDelete.next.prev = nodeToDelete.prev;
         
         pointsCount--;
+        invalidateLookup();
         
         // Сбрасываем кэш, если удалили кэшированный элемент
         if (lastAccessedIndex == index) {
@@ -283,30 +292,94 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             return Double.NaN;
         }
         
-        FunctionNode current = head.next;
+        // Отрезок [x(i), x(i+1)], содержащий x, находится за O(log n) или O(1)
+        Lookup current = lookup();
+        return valueInSegment(current.nodes[current.locator.locate(x)], x);
+    }
+    
+    // Значение функции в точке x, лежащей на отрезке между узлом current и следующим
+    private double valueInSegment(FunctionNode current, double x) {
+        double curX = current.point.getX();
+        double nextX = current.next.point.getX();
         
-        // Проверяем первую точку
-        if (Math.abs(x - current.point.getX()) < EPSILON) {
+        // Проверяем совпадение с узлами отрезка
+        if (Math.abs(x - curX) < EPSILON) {
             return current.point.getY();
         }
+        if (Math.abs(x - nextX) < EPSILON) {
+            return current.next.point.getY();
+        }
         
-        // Ищем интервал
-        for (int i = 0; i < pointsCount - 1; i++) {
-            double curX = current.point.getX();
-            double nextX = current.next.point.getX();
-            
-            if (Math.abs(x - nextX) < EPSILON) {
-                return current.next.point.getY();
+        if (x > curX && x < nextX) {
+            return linearInterpolation(current.point, current.next.point, x);
+        }
+        
+        return Double.NaN;
+    }
+    
+    // Для упорядоченного по возрастанию массива точек узлы списка и точки
+    // проходятся одновременно за O(n + m), иначе каждая точка ищется отдельно
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (pointsCount == 0 || !IntervalLocator.isSorted(xs)) {
+            for (int k = 0; k < xs.length; k++) {
+                out[k] = getFunctionValue(xs[k]);
             }
-            
-            if (x > curX && x < nextX) {
-                return linearInterpolation(current.point, current.next.point, x);
+            return;
+        }
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        FunctionNode lastSegment = head.prev.prev;
+        FunctionNode current = head.next;
+        for (int k = 0; k < xs.length; k++) {
+            double x = xs[k];
+            if (x < left || x > right) {
+                out[k] = Double.NaN;
+                continue;
             }
-            
-            current = current.next;
+            while (current != lastSegment && current.next.point.getX() <= x) {
+                current = current.next;
+            }
+            out[k] = valueInSegment(current, x);
         }
+    }
+    
+    // Возвращает поиск отрезка, строя его, если список изменялся с прошлого поиска
+    private Lookup lookup() {
+        Lookup current = lookup;
+        if (current != null) {
+            return current;
+        }
+        double[] xs = new double[pointsCount];
+        FunctionNode[] nodes = new FunctionNode[pointsCount];
+        FunctionNode node = head.next;
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = node.point.getX();
+            nodes[i] = node;
+            node = node.next;
+        }
+        IntervalLocator locator = new IntervalLocator();
+        locator.reset(xs, pointsCount);
+        current = new Lookup(nodes, locator);
+        lookup = current;
+        return current;
+    }
+    
+    // Вызывается после любого изменения абсцисс или структуры списка
+    private void invalidateLookup() {
+        lookup = null;
+    }
+    
+    // Снимок узлов вместе с поиском отрезка, настроенным на массив их абсцисс;
+    // после публикации не изменяется
+    private static final class Lookup {
+        private final FunctionNode[] nodes;
+        private final IntervalLocator locator;
         
-        return Double.NaN;
+        Lookup(FunctionNode[] nodes, IntervalLocator locator) {
+            this.nodes = nodes;
+            this.locator = locator;
+        }
     }
     
     private double linearInterpolation(FunctionPoint p1, FunctionPoint p2, double x) {
@@ -338,6 +411,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         }
         
         node.point = new FunctionPoint(point);
+        invalidateLookup();
     }
     
     public double getPointX(int index) {
@@ -356,6 +430,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         }
         
         node.point.setX(x);
+        invalidateLookup();
     }
     
     public double getPointY(int index) {
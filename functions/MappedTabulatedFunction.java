@@ -0,0 +1,369 @@
+package functions;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Табулированная функция только для чтения, координаты которой остаются в файле
+// двоичного формата NIO (см. TabulatedFunctions.outputTabulatedFunction(..., Path))
+// и читаются через отображение файла в память. Файл отображается частями
+// по CHUNK_SIZE точек при первом обращении к ним, поэтому открытие занимает
+// постоянное время, а в памяти находятся только страницы, которые действительно
+// читались. Упорядоченность абсцисс при открытии не проверяется.
+public class MappedTabulatedFunction implements TabulatedFunction, Closeable {
+    // Количество точек в одной отображаемой части (128 МБ на координату)
+    private static final int CHUNK_SHIFT = 24;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final double EPSILON = 1e-10;
+
+    // Файл, общий для функции и её копий; закрывается последней из них
+    private final SharedChannel channel;
+    // Признак закрытия этой копии
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final int pointsCount;
+    // Смещения блоков абсцисс и ординат в файле
+    private final long xOffset;
+    private final long yOffset;
+    // Отображённые части блоков; null - часть ещё не отображалась
+    private final AtomicReferenceArray<DoubleBuffer> xChunks;
+    private final AtomicReferenceArray<DoubleBuffer> yChunks;
+
+    // Открывает файл; проверяются только заголовок и размер файла
+    public MappedTabulatedFunction(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TabulatedFunctions.CHANNEL_HEADER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new EOFException("Неожиданный конец данных табулированной функции");
+                }
+            }
+            header.flip();
+            if (header.getInt() != TabulatedFunctions.CHANNEL_MAGIC) {
+                throw new IOException("Неверная сигнатура двоичного файла табулированной функции");
+            }
+            int version = header.getInt();
+            if (version != TabulatedFunctions.CHANNEL_VERSION) {
+                throw new IOException("Неподдерживаемая версия формата: " + version);
+            }
+            long count = header.getLong();
+            if (count < 2 || count > Integer.MAX_VALUE) {
+                throw new IOException("Некорректное количество точек: " + count);
+            }
+            if (channel.size() < TabulatedFunctions.CHANNEL_HEADER_SIZE + count * 2 * Double.BYTES) {
+                throw new EOFException("Файл короче, чем указано в заголовке");
+            }
+            this.channel = new SharedChannel(channel);
+            this.pointsCount = (int) count;
+            this.xOffset = TabulatedFunctions.CHANNEL_HEADER_SIZE;
+            this.yOffset = xOffset + count * Double.BYTES;
+            int chunks = (int) ((count + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+            this.xChunks = new AtomicReferenceArray<>(chunks);
+            this.yChunks = new AtomicReferenceArray<>(chunks);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Копия использует те же отображённые части файла и становится
+    // ещё одним владельцем общего файла
+    private MappedTabulatedFunction(MappedTabulatedFunction source) {
+        source.channel.retain();
+        this.channel = source.channel;
+        this.pointsCount = source.pointsCount;
+        this.xOffset = source.xOffset;
+        this.yOffset = source.yOffset;
+        this.xChunks = source.xChunks;
+        this.yChunks = source.yChunks;
+    }
+
+    // Закрывает эту копию. Файл закрывается, когда закрыты функция и все её
+    // копии; после этого уже отображённые части остаются доступными,
+    // обращение к неотображённым частям приводит к исключению
+    @Override
+    public void close() throws IOException {
+        if (closed.compareAndSet(false, true)) {
+            channel.release();
+        }
+    }
+
+    private double x(int index) {
+        return chunk(xChunks, xOffset, index >>> CHUNK_SHIFT).get(index & CHUNK_MASK);
+    }
+
+    private double y(int index) {
+        return chunk(yChunks, yOffset, index >>> CHUNK_SHIFT).get(index & CHUNK_MASK);
+    }
+
+    // Возвращает часть блока, при первом обращении отображая её в память.
+    // При одновременном первом обращении из нескольких потоков часть может
+    // быть отображена дважды, в массив попадает одно из отображений
+    private DoubleBuffer chunk(AtomicReferenceArray<DoubleBuffer> chunks, long blockOffset, int chunk) {
+        DoubleBuffer buffer = chunks.get(chunk);
+        if (buffer != null) {
+            return buffer;
+        }
+        long first = (long) chunk << CHUNK_SHIFT;
+        long length = Math.min(CHUNK_SIZE, pointsCount - first);
+        try {
+            buffer = channel.channel.map(FileChannel.MapMode.READ_ONLY,
+                    blockOffset + first * Double.BYTES, length * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asDoubleBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка отображения файла табулированной функции", e);
+        }
+        chunks.compareAndSet(chunk, null, buffer);
+        return chunks.get(chunk);
+    }
+
+    public double getLeftDomainBorder() {
+        return x(0);
+    }
+
+    public double getRightDomainBorder() {
+        return x(pointsCount - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+        return valueInSegment(locate(x), x);
+    }
+
+    // Индекс i наибольшего узла с x(i) <= x, ограниченный отрезком
+    // [0, pointsCount - 2]; двоичный поиск читает O(log n) страниц
+    private int locate(double x) {
+        int low = 0;
+        int high = pointsCount - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (x(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Значение функции в точке x, лежащей на отрезке [x(i), x(i+1)]
+    private double valueInSegment(int i, double x) {
+        double curX = x(i);
+        double nextX = x(i + 1);
+
+        if (Math.abs(x - curX) < EPSILON) {
+            return y(i);
+        }
+
+        if (x > curX && x < nextX) {
+            double curY = y(i);
+            return curY + (y(i + 1) - curY) * (x - curX) / (nextX - curX);
+        }
+
+        if (Math.abs(x - nextX) < EPSILON) {
+            return y(i + 1);
+        }
+        return y(pointsCount - 1);
+    }
+
+    // Точный интеграл функции на отрезке [left, right]: концы находятся
+    // двоичным поиском, затем узлы между ними читаются подряд, поэтому
+    // затрагиваются только страницы внутри отрезка
+    public double integrate(double left, double right) {
+        if (left < getLeftDomainBorder() || right > getRightDomainBorder()) {
+            throw new IllegalArgumentException(
+                "Интервал интегрирования [" + left + ", " + right + "] " +
+                "выходит за область определения функции [" +
+                getLeftDomainBorder() + ", " + getRightDomainBorder() + "]"
+            );
+        }
+        if (left >= right) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+
+        int i = locate(left);
+        int j = locate(right);
+        double leftY = valueInSegment(i, left);
+        double rightY = valueInSegment(j, right);
+        if (i == j) {
+            return (leftY + rightY) * (right - left) / 2.0;
+        }
+
+        // Участок от left до x(i+1), узлы x(i+1)..x(j), участок от x(j) до right
+        double prevX = x(i + 1);
+        double prevY = y(i + 1);
+        double integral = (leftY + prevY) * (prevX - left) / 2.0;
+        for (int k = i + 2; k <= j; k++) {
+            double curX = x(k);
+            double curY = y(k);
+            integral += (prevY + curY) * (curX - prevX) / 2.0;
+            prevX = curX;
+            prevY = curY;
+        }
+        return integral + (prevY + rightY) * (right - prevX) / 2.0;
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return x(index);
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return y(index);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
+        }
+    }
+
+    // Функция доступна только для чтения
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Отображённая табулированная функция доступна только для чтения");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Отображённая табулированная функция доступна только для чтения");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Отображённая табулированная функция доступна только для чтения");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Отображённая табулированная функция доступна только для чтения");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Отображённая табулированная функция доступна только для чтения");
+    }
+
+    // Формат совпадает с ArrayTabulatedFunction.toString()
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < pointsCount; i++) {
+            sb.append("(").append(x(i)).append("; ").append(y(i)).append(")");
+            if (i < pointsCount - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    // Поточечное сравнение с любой TabulatedFunction с той же точностью,
+    // что и в FunctionPoint.equals(), как у остальных табулированных функций
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+
+        if (!(o instanceof TabulatedFunction)) return false;
+
+        TabulatedFunction that = (TabulatedFunction) o;
+        if (pointsCount != that.getPointsCount()) return false;
+
+        for (int i = 0; i < pointsCount; i++) {
+            if (!(Math.abs(x(i) - that.getPointX(i)) < EPSILON && Math.abs(y(i) - that.getPointY(i)) < EPSILON)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Совпадает с hashCode() остальных табулированных функций с теми же точками
+    @Override
+    public int hashCode() {
+        int hash = pointsCount;
+        for (int i = 0; i < pointsCount; i++) {
+            long xBits = Double.doubleToLongBits(x(i));
+            long yBits = Double.doubleToLongBits(y(i));
+            hash ^= (int) xBits ^ (int) (xBits >>> 32) ^ (int) yBits ^ (int) (yBits >>> 32);
+        }
+        return hash;
+    }
+
+    // Функция неизменяема, поэтому копия разделяет с ней файл. Копию нужно
+    // закрывать так же, как исходную функцию: файл остаётся открытым, пока
+    // не закрыта последняя из них
+    @Override
+    public Object clone() {
+        return new MappedTabulatedFunction(this);
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return new Iterator<FunctionPoint>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < pointsCount;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("Нет следующего элемента");
+                }
+                FunctionPoint point = new FunctionPoint(x(currentIndex), y(currentIndex));
+                currentIndex++;
+                return point;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Удаление не поддерживается");
+            }
+        };
+    }
+
+    // Канал файла со счётчиком владельцев: исходной функции и её копий
+    private static final class SharedChannel {
+        private final FileChannel channel;
+        private final AtomicInteger owners = new AtomicInteger(1);
+
+        SharedChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void retain() {
+            owners.incrementAndGet();
+        }
+
+        void release() throws IOException {
+            if (owners.decrementAndGet() == 0) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package functions;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Параллельное интегрирование методом трапеций на ForkJoinPool.
+// Отрезок [left, right] делится на участки x(k) = left + k * step, участки
+// группируются в блоки фиксированного размера, блоки распределяются по потокам
+// пула с перехватом работы. Дерево разбиения зависит только от числа участков,
+// а суммы складываются с компенсацией (алгоритм Ноймайера) в фиксированном
+// порядке, поэтому результат при заданном шаге не зависит от числа потоков.
+final class ParallelIntegrator {
+    // Количество участков в одном блоке, вычисляемом одним потоком
+    static final int LEAF_SEGMENTS = 4096;
+
+    // Меньше этого количества участков параллельное вычисление не окупается
+    static final long PARALLEL_THRESHOLD = 8L * LEAF_SEGMENTS;
+
+    private ParallelIntegrator() {
+    }
+
+    static double integrate(ForkJoinPool pool, Function function, double left, double right,
+                            double step, long segmentsCount) {
+        double[] sum = pool.invoke(new SegmentTask(function, left, right, step, 0, segmentsCount));
+        return sum[0] + sum[1];
+    }
+
+    // Количество участков длины step, покрывающих [left, right]
+    static long segmentsCount(double left, double right, double step) {
+        double count = Math.ceil((right - left) / step);
+        if (count >= Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        long n = Math.max(1L, (long) count);
+        // Последний узел сетки может оказаться левее right из-за округления
+        while (left + n * step < right && n < Long.MAX_VALUE) {
+            n++;
+        }
+        return n;
+    }
+
+    // Интеграл по участкам с номерами [from, to); результат - пара
+    // {сумма, компенсация}
+    private static final class SegmentTask extends RecursiveTask<double[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final Function function;
+        private final double left;
+        private final double right;
+        private final double step;
+        private final long from;
+        private final long to;
+
+        SegmentTask(Function function, double left, double right, double step, long from, long to) {
+            this.function = function;
+            this.left = left;
+            this.right = right;
+            this.step = step;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= LEAF_SEGMENTS) {
+                return computeLeaf();
+            }
+            // Середина выравнивается по границе блока, чтобы дерево
+            // зависело только от числа участков
+            long blocks = (to - from + LEAF_SEGMENTS - 1) / LEAF_SEGMENTS;
+            long middle = from + (blocks / 2) * LEAF_SEGMENTS;
+            SegmentTask leftTask = new SegmentTask(function, left, right, step, from, middle);
+            SegmentTask rightTask = new SegmentTask(function, left, right, step, middle, to);
+            leftTask.fork();
+            double[] second = rightTask.compute();
+            double[] first = leftTask.join();
+            double[] result = {first[0], first[1] + second[1]};
+            add(result, second[0]);
+            return result;
+        }
+
+        // Значения в узлах блока запрашиваются одним пакетным вызовом
+        private double[] computeLeaf() {
+            int count = (int) (to - from);
+            double[] xs = new double[count + 1];
+            for (int j = 0; j <= count; j++) {
+                xs[j] = Math.min(left + (from + j) * step, right);
+            }
+            double[] ys = new double[count + 1];
+            function.getFunctionValues(xs, ys);
+
+            double[] result = new double[2];
+            for (int j = 0; j < count; j++) {
+                add(result, (ys[j] + ys[j + 1]) * (xs[j + 1] - xs[j]) / 2.0);
+            }
+            return result;
+        }
+
+        // Прибавляет value к паре {сумма, компенсация} по алгоритму Ноймайера
+        private static void add(double[] sum, double value) {
+            double t = sum[0] + value;
+            if (Math.abs(sum[0]) >= Math.abs(value)) {
+                sum[1] += (sum[0] - t) + value;
+            } else {
+                sum[1] += (value - t) + sum[0];
+            }
+            sum[0] = t;
+        }
+    }
+}
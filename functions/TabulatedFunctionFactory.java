@@ -6,4 +6,18 @@ public interface TabulatedFunctionFactory {
     TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values);
     
     TabulatedFunction createTabulatedFunction(FunctionPoint[] points);
+    
+    // Создание по массивам координат. Массивы передаются во владение функции:
+    // реализация может использовать их без копирования, поэтому вызывающий код
+    // не должен изменять их после вызова
+    default TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+        if (xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Количество абсцисс и ординат должно совпадать");
+        }
+        FunctionPoint[] points = new FunctionPoint[xValues.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new FunctionPoint(xValues[i], yValues[i]);
+        }
+        return createTabulatedFunction(points);
+    }
 }
\ No newline at end of file
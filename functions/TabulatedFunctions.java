@@ -3,12 +3,34 @@ package functions;
 import java.io.*;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class TabulatedFunctions {
     // Приватное статическое поле фабрики с инициализацией по умолчанию
     private static TabulatedFunctionFactory factory = 
         new ArrayTabulatedFunction.ArrayTabulatedFunctionFactory();
     
+    // Двоичный формат для каналов NIO (порядок байтов little-endian):
+    // заголовок из HEADER_SIZE байт - сигнатура "TABF", версия (int),
+    // количество точек (long), - затем блок всех абсцисс и блок всех ординат
+    static final int CHANNEL_MAGIC = 0x46424154;
+    static final int CHANNEL_VERSION = 1;
+    static final int CHANNEL_HEADER_SIZE = 16;
+    // Размер промежуточного буфера при обмене с каналом
+    private static final int CHANNEL_BUFFER_SIZE = 1 << 16;
+    // Наибольшая длина массива, которую гарантированно можно выделить
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    // Размер текстового блока при записи в символьный поток и запас
+    // на одну точку сверх него (запись double занимает не более 24 символов)
+    private static final int TEXT_BUFFER_SIZE = 1 << 16;
+    private static final int TEXT_BUFFER_RESERVE = 64;
+    
     // Приватный конструктор чтобы нельзя было создать объект класса
     private TabulatedFunctions() {
         throw new AssertionError("Нельзя создать объект класса TabulatedFunctions");
@@ -58,6 +80,56 @@ public class TabulatedFunctions {
         return createTabulatedFunction(leftX, rightX, values);
     }
     
+    // Точный интеграл кусочно-линейной функции на отрезке [left, right]: сумма
+    // площадей трапеций между узлами, попавшими внутрь отрезка, плюс крайние
+    // участки до значений, интерполированных на концах. Один проход по узлам
+    public static double integrate(TabulatedFunction function, double left, double right) {
+        // Для массива интеграл вычисляется по накопленным суммам за O(log n)
+        if (function instanceof ArrayTabulatedFunction) {
+            return ((ArrayTabulatedFunction) function).integrate(left, right);
+        }
+        // Для отображённого файла читаются только узлы внутри отрезка
+        if (function instanceof MappedTabulatedFunction) {
+            return ((MappedTabulatedFunction) function).integrate(left, right);
+        }
+        
+        if (left < function.getLeftDomainBorder() || right > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException(
+                "Интервал интегрирования [" + left + ", " + right + "] " +
+                "выходит за область определения функции [" + 
+                function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]"
+            );
+        }
+        
+        if (left >= right) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        
+        double integral = 0.0;
+        double x1 = left;
+        double y1 = function.getFunctionValue(left);
+        int count = function.getPointsCount();
+        
+        // Узлы перебираются по порядку: для связного списка это доступ
+        // к соседнему узлу через кэш последнего обращения
+        for (int i = 0; i < count; i++) {
+            double x2 = function.getPointX(i);
+            if (x2 <= left) {
+                continue;
+            }
+            if (x2 >= right) {
+                break;
+            }
+            double y2 = function.getPointY(i);
+            integral += (y1 + y2) * (x2 - x1) / 2.0;
+            x1 = x2;
+            y1 = y2;
+        }
+        
+        integral += (y1 + function.getFunctionValue(right)) * (right - x1) / 2.0;
+        return integral;
+    }
+    
     // Вывод табулированной функции в байтовый поток
     public static void outputTabulatedFunction(TabulatedFunction function, OutputStream out) throws IOException {
         DataOutputStream dataOut = new DataOutputStream(out);
@@ -94,56 +166,219 @@ public class TabulatedFunctions {
         return createTabulatedFunction(points);
     }
     
-    // Запись табулированной функции в символьный поток
+    // Вывод в канал (например, FileChannel) в двоичном формате NIO: координаты
+    // записываются блоками через буфер вне кучи, для ArrayTabulatedFunction -
+    // прямо из её внутренних массивов
+    public static void outputTabulatedFunction(TabulatedFunction function, WritableByteChannel out)
+            throws IOException {
+        int count = function.getPointsCount();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(CHANNEL_MAGIC).putInt(CHANNEL_VERSION).putLong(count);
+        
+        if (function instanceof ArrayTabulatedFunction) {
+            ArrayTabulatedFunction array = (ArrayTabulatedFunction) function;
+            writeBlock(out, buffer, array.internalXValues(), 0, count);
+            writeBlock(out, buffer, array.internalYValues(), 0, count);
+        } else {
+            // Координаты копируются порциями через промежуточный массив
+            double[] chunk = new double[CHANNEL_BUFFER_SIZE / Double.BYTES];
+            for (int pass = 0; pass < 2; pass++) {
+                for (int from = 0; from < count; from += chunk.length) {
+                    int length = Math.min(chunk.length, count - from);
+                    for (int k = 0; k < length; k++) {
+                        chunk[k] = pass == 0 ? function.getPointX(from + k) : function.getPointY(from + k);
+                    }
+                    writeBlock(out, buffer, chunk, 0, length);
+                }
+            }
+        }
+        flushBuffer(out, buffer);
+    }
+    
+    // Ввод из канала в двоичном формате NIO. Координаты читаются блоками сразу
+    // в массивы, которые передаются фабрике без создания объектов FunctionPoint
+    public static TabulatedFunction inputTabulatedFunction(ReadableByteChannel in) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.limit(CHANNEL_HEADER_SIZE);
+        readFully(in, buffer);
+        buffer.flip();
+        if (buffer.getInt() != CHANNEL_MAGIC) {
+            throw new IOException("Неверная сигнатура двоичного файла табулированной функции");
+        }
+        int version = buffer.getInt();
+        if (version != CHANNEL_VERSION) {
+            throw new IOException("Неподдерживаемая версия формата: " + version);
+        }
+        long count = buffer.getLong();
+        if (count < 0 || count > MAX_ARRAY_LENGTH) {
+            throw new IOException("Некорректное количество точек: " + count);
+        }
+        // Для файла размер данных проверяется до выделения массивов
+        if (in instanceof FileChannel) {
+            FileChannel file = (FileChannel) in;
+            if (file.size() - file.position() < count * 2 * Double.BYTES) {
+                throw new EOFException("Файл короче, чем указано в заголовке");
+            }
+        }
+        
+        double[] xValues = new double[(int) count];
+        double[] yValues = new double[(int) count];
+        readBlock(in, buffer, xValues);
+        readBlock(in, buffer, yValues);
+        
+        // Используем фабрику вместо явного создания
+        return factory.createTabulatedFunction(xValues, yValues);
+    }
+    
+    // Вывод в сжатом поколоночном формате (см. CompressedTabulatedFormat):
+    // равномерная сетка абсцисс занимает 16 байт, ординаты гладкой функции
+    // кодируются XOR соседних значений, данные защищены CRC32
+    public static void outputCompressedTabulatedFunction(TabulatedFunction function, OutputStream out)
+            throws IOException {
+        CompressedTabulatedFormat.write(function, out);
+    }
+    
+    // Ввод из сжатого поколоночного формата; при несовпадении контрольной
+    // суммы выбрасывается IOException
+    public static TabulatedFunction inputCompressedTabulatedFunction(InputStream in) throws IOException {
+        return CompressedTabulatedFormat.read(in, factory);
+    }
+    
+    // Запись в файл в двоичном формате NIO (файл создаётся или перезаписывается)
+    public static void outputTabulatedFunction(TabulatedFunction function, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            outputTabulatedFunction(function, channel);
+        }
+    }
+    
+    // Чтение из файла в двоичном формате NIO
+    public static TabulatedFunction inputTabulatedFunction(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return inputTabulatedFunction(channel);
+        }
+    }
+    
+    // Помещает values[from..from+count) в буфер, сбрасывая заполненный буфер в канал
+    private static void writeBlock(WritableByteChannel out, ByteBuffer buffer,
+            double[] values, int from, int count) throws IOException {
+        int end = from + count;
+        while (from < end) {
+            int length = Math.min(buffer.remaining() / Double.BYTES, end - from);
+            if (length == 0) {
+                flushBuffer(out, buffer);
+                continue;
+            }
+            buffer.asDoubleBuffer().put(values, from, length);
+            buffer.position(buffer.position() + length * Double.BYTES);
+            from += length;
+        }
+    }
+    
+    private static void flushBuffer(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    // Заполняет массив values из канала порциями размером с буфер
+    private static void readBlock(ReadableByteChannel in, ByteBuffer buffer, double[] values) throws IOException {
+        int from = 0;
+        while (from < values.length) {
+            int length = Math.min(buffer.capacity() / Double.BYTES, values.length - from);
+            buffer.clear();
+            buffer.limit(length * Double.BYTES);
+            readFully(in, buffer);
+            buffer.flip();
+            buffer.asDoubleBuffer().get(values, from, length);
+            from += length;
+        }
+    }
+    
+    // Читает из канала до заполнения буфера до его предела
+    private static void readFully(ReadableByteChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                throw new EOFException("Неожиданный конец данных табулированной функции");
+            }
+        }
+    }
+    
+    // Запись табулированной функции в символьный поток. Числа дописываются
+    // в переиспользуемый StringBuilder (append(double) не создаёт строк и даёт
+    // тот же текст, что String.valueOf), текст передаётся в поток блоками
     public static void writeTabulatedFunction(TabulatedFunction function, Writer out) throws IOException {
-        BufferedWriter writer = new BufferedWriter(out);
+        int count = function.getPointsCount();
+        StringBuilder text = new StringBuilder(TEXT_BUFFER_SIZE + TEXT_BUFFER_RESERVE);
+        char[] chars = new char[TEXT_BUFFER_SIZE + TEXT_BUFFER_RESERVE];
+        
+        // Для массива координаты читаются напрямую; узлы связного списка
+        // перебираются по порядку через кэш последнего обращения за O(1)
+        double[] xValues = null;
+        double[] yValues = null;
+        if (function instanceof ArrayTabulatedFunction) {
+            xValues = ((ArrayTabulatedFunction) function).internalXValues();
+            yValues = ((ArrayTabulatedFunction) function).internalYValues();
+        }
         
         // Записываем количество точек
-        writer.write(String.valueOf(function.getPointsCount()));
-        writer.write(" ");
+        text.append(count).append(' ');
         
         // Записываем координаты всех точек через пробел
-        for (int i = 0; i < function.getPointsCount(); i++) {
-            writer.write(String.valueOf(function.getPointX(i)));
-            writer.write(" ");
-            writer.write(String.valueOf(function.getPointY(i)));
-            if (i < function.getPointsCount() - 1) {
-                writer.write(" ");
+        for (int i = 0; i < count; i++) {
+            double x = xValues != null ? xValues[i] : function.getPointX(i);
+            double y = yValues != null ? yValues[i] : function.getPointY(i);
+            text.append(x).append(' ').append(y);
+            if (i < count - 1) {
+                text.append(' ');
+            }
+            if (text.length() >= TEXT_BUFFER_SIZE) {
+                writeText(out, text, chars);
             }
         }
+        writeText(out, text, chars);
         
         // Не закрываем поток, чтобы вызывающий код мог продолжать использовать его
-        writer.flush();
+        out.flush();
+    }
+    
+    // Передаёт накопленный текст в поток и очищает StringBuilder
+    private static void writeText(Writer out, StringBuilder text, char[] chars) throws IOException {
+        int length = text.length();
+        text.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+        text.setLength(0);
     }
     
-    // Чтение табулированной функции из символьного потока
+    // Чтение табулированной функции из символьного потока. Числа разбираются
+    // DoubleTokenizer прямо в массивы координат, которые передаются фабрике
     public static TabulatedFunction readTabulatedFunction(Reader in) throws IOException {
-        StreamTokenizer tokenizer = new StreamTokenizer(in);
+        DoubleTokenizer tokenizer = new DoubleTokenizer(in);
         
         // Читаем количество точек
-        if (tokenizer.nextToken() != StreamTokenizer.TT_NUMBER) {
-            throw new IOException("Ожидалось число (количество точек)");
-        }
-        int pointsCount = (int) tokenizer.nval;
+        int pointsCount = readPointsCount(tokenizer);
         
         // Читаем координаты точек
-        FunctionPoint[] points = new FunctionPoint[pointsCount];
+        double[] xValues = new double[pointsCount];
+        double[] yValues = new double[pointsCount];
         for (int i = 0; i < pointsCount; i++) {
-            if (tokenizer.nextToken() != StreamTokenizer.TT_NUMBER) {
-                throw new IOException("Ожидалось число (координата X)");
-            }
-            double x = tokenizer.nval;
-            
-            if (tokenizer.nextToken() != StreamTokenizer.TT_NUMBER) {
-                throw new IOException("Ожидалось число (координата Y)");
-            }
-            double y = tokenizer.nval;
-            
-            points[i] = new FunctionPoint(x, y);
+            xValues[i] = tokenizer.nextDouble("координата X");
+            yValues[i] = tokenizer.nextDouble("координата Y");
         }
         
         // Используем фабрику вместо явного создания
-        return createTabulatedFunction(points);
+        return factory.createTabulatedFunction(xValues, yValues);
+    }
+    
+    // Количество точек записывается неотрицательным целым числом
+    private static int readPointsCount(DoubleTokenizer tokenizer) throws IOException {
+        double count = tokenizer.nextDouble("количество точек");
+        if (!(count >= 0 && count <= MAX_ARRAY_LENGTH) || count != Math.rint(count)) {
+            throw new IOException("Некорректное количество точек: " + count);
+        }
+        return (int) count;
     }
 
         public static TabulatedFunction createTabulatedFunction(
@@ -245,27 +480,16 @@ public class TabulatedFunctions {
                 "Класс " + clazz.getName() + " не реализует интерфейс TabulatedFunction");
         }
         
-        StreamTokenizer tokenizer = new StreamTokenizer(in);
+        DoubleTokenizer tokenizer = new DoubleTokenizer(in);
         
         // Читаем количество точек
-        if (tokenizer.nextToken() != StreamTokenizer.TT_NUMBER) {
-            throw new IOException("Ожидалось число (количество точек)");
-        }
-        int pointsCount = (int) tokenizer.nval;
+        int pointsCount = readPointsCount(tokenizer);
         
         // Читаем координаты точек
         FunctionPoint[] points = new FunctionPoint[pointsCount];
         for (int i = 0; i < pointsCount; i++) {
-            if (tokenizer.nextToken() != StreamTokenizer.TT_NUMBER) {
-                throw new IOException("Ожидалось число (координата X)");
-            }
-            double x = tokenizer.nval;
-            
-            if (tokenizer.nextToken() != StreamTokenizer.TT_NUMBER) {
-                throw new IOException("Ожидалось число (координата Y)");
-            }
-            double y = tokenizer.nval;
-            
+            double x = tokenizer.nextDouble("координата X");
+            double y = tokenizer.nextDouble("координата Y");
             points[i] = new FunctionPoint(x, y);
         }
         
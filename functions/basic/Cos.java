@@ -1,10 +1,29 @@
 package functions.basic;
 
+import functions.Integrable;
+
 // Класс для вычисления косинуса
-public class Cos extends TrigonometricFunction {
+public class Cos extends TrigonometricFunction implements Integrable {
     
     // Вычисляет значение косинуса в точке x
     public double getFunctionValue(double x) {
         return Math.cos(x);
     }
-}
\ No newline at end of file
+    
+    // Вычисляет значения косинуса сразу для массива точек
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.cos(xs[i]);
+        }
+    }
+    
+    // Первообразная sin(x) непрерывна на всей числовой прямой
+    public boolean hasAntiderivative(double left, double right) {
+        return true;
+    }
+    
+    public double getAntiderivativeValue(double x) {
+        return Math.sin(x);
+    }
+}
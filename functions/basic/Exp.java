@@ -1,11 +1,11 @@
 package functions.basic;
 
-import functions.Function;
+import functions.Integrable;
 
 
  //Класс для вычисления экспоненциальной функции e^x
 
-public class Exp implements Function {
+public class Exp implements Integrable {
 
      //Возвращает значение левой границы области определения (минус бесконечность)
     public double getLeftDomainBorder() {
@@ -23,4 +23,23 @@ public class Exp implements Function {
     public double getFunctionValue(double x) {
         return Math.exp(x);
     }
-}
\ No newline at end of file
+    
+    //Вычисляет значения экспоненты сразу для массива точек
+
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.exp(xs[i]);
+        }
+    }
+    
+    //Первообразная e^x непрерывна на всей числовой прямой
+
+    public boolean hasAntiderivative(double left, double right) {
+        return true;
+    }
+    
+    public double getAntiderivativeValue(double x) {
+        return Math.exp(x);
+    }
+}
@@ -1,10 +1,12 @@
 package functions.basic;
 
-import functions.Function;
+import functions.Integrable;
 
 // Класс для вычисления логарифма по заданному основанию
-public class Log implements Function {
+public class Log implements Integrable {
     private double base;
+    // Натуральный логарифм основания, вычисляется один раз в конструкторе
+    private double logBase;
     
     // Конструктор логарифма
     public Log(double base) {
@@ -12,6 +14,7 @@ public class Log implements Function {
             throw new IllegalArgumentException("Основание логарифма должно быть положительным и не равным 1");
         }
         this.base = base;
+        this.logBase = Math.log(base);
     }
     
     // Возвращает значение левой границы области определения (0, не включая)
@@ -29,11 +32,33 @@ public class Log implements Function {
         if (x <= 0) {
             return Double.NaN;
         }
-        return Math.log(x) / Math.log(base);
+        return Math.log(x) / logBase;
+    }
+    
+    // Вычисляет значения логарифма сразу для массива точек
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = x <= 0 ? Double.NaN : Math.log(x) / logBase;
+        }
     }
     
     // Возвращает основание логарифма
     public double getBase() {
         return base;
     }
-}
\ No newline at end of file
+    
+    // Первообразная (x*ln(x) - x) / ln(base) непрерывна на [0, +бесконечность)
+    public boolean hasAntiderivative(double left, double right) {
+        return left >= 0;
+    }
+    
+    // В нуле первообразная доопределяется пределом x*ln(x) -> 0
+    public double getAntiderivativeValue(double x) {
+        if (x == 0) {
+            return 0.0;
+        }
+        return (x * Math.log(x) - x) / logBase;
+    }
+}
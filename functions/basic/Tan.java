@@ -1,10 +1,31 @@
 package functions.basic;
 
+import functions.Integrable;
+
 // Класс для вычисления тангенса
-public class Tan extends TrigonometricFunction {
+public class Tan extends TrigonometricFunction implements Integrable {
     
     // Вычисляет значение тангенса в точке x
     public double getFunctionValue(double x) {
         return Math.tan(x);
     }
-}
\ No newline at end of file
+    
+    // Вычисляет значения тангенса сразу для массива точек
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.tan(xs[i]);
+        }
+    }
+    
+    // Первообразная -ln|cos(x)| непрерывна на отрезке, не содержащем
+    // полюсов pi/2 + k*pi
+    public boolean hasAntiderivative(double left, double right) {
+        double firstPole = Math.PI / 2 + Math.ceil((left - Math.PI / 2) / Math.PI) * Math.PI;
+        return firstPole > right;
+    }
+    
+    public double getAntiderivativeValue(double x) {
+        return -Math.log(Math.abs(Math.cos(x)));
+    }
+}
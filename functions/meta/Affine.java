@@ -0,0 +1,115 @@
+package functions.meta;
+
+import functions.Function;
+import functions.Integrable;
+
+// Класс для аффинного преобразования функции:
+// g(x) = f((x - shiftX) / scaleX) * scaleY + shiftY.
+// Объединяет в один узел цепочку сдвигов и масштабирований
+public class Affine implements Integrable {
+    private final Function f;
+    private final double scaleX;
+    private final double shiftX;
+    private final double scaleY;
+    private final double shiftY;
+    // Область определения вычисляется один раз при создании
+    private final double leftDomainBorder;
+    private final double rightDomainBorder;
+    
+    // Конструктор получает функцию, масштаб и сдвиг по каждой оси
+    public Affine(Function f, double scaleX, double shiftX, double scaleY, double shiftY) {
+        this(f, scaleX, shiftX, scaleY, shiftY,
+            scaleX >= 0 ? f.getLeftDomainBorder() * scaleX + shiftX : f.getRightDomainBorder() * scaleX + shiftX,
+            scaleX >= 0 ? f.getRightDomainBorder() * scaleX + shiftX : f.getLeftDomainBorder() * scaleX + shiftX);
+    }
+    
+    // Конструктор с заранее известной областью определения (используется
+    // при упрощении, чтобы область совпадала с областью исходного дерева)
+    Affine(Function f, double scaleX, double shiftX, double scaleY, double shiftY,
+           double leftDomainBorder, double rightDomainBorder) {
+        this.f = f;
+        this.scaleX = scaleX;
+        this.shiftX = shiftX;
+        this.scaleY = scaleY;
+        // Нулевой сдвиг хранится как -0.0: v + (-0.0) == v для любого v,
+        // тогда как v + 0.0 превращает -0.0 в 0.0 (важно, например, для 1/v)
+        this.shiftY = shiftY == 0 ? -0.0 : shiftY;
+        this.leftDomainBorder = leftDomainBorder;
+        this.rightDomainBorder = rightDomainBorder;
+    }
+    
+    // Область определения преобразуется вдоль оси X
+    public double getLeftDomainBorder() {
+        return leftDomainBorder;
+    }
+    
+    // Область определения преобразуется вдоль оси X
+    public double getRightDomainBorder() {
+        return rightDomainBorder;
+    }
+    
+    // Значение функции преобразуется вдоль оси Y
+    public double getFunctionValue(double x) {
+        if (x < leftDomainBorder || x > rightDomainBorder) {
+            return Double.NaN;
+        }
+        return f.getFunctionValue((x - shiftX) / scaleX) * scaleY + shiftY;
+    }
+    
+    // Значения преобразованной функции для массива точек
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = leftDomainBorder;
+        double right = rightDomainBorder;
+        double[] values = new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            values[i] = (xs[i] - shiftX) / scaleX;
+        }
+        f.getFunctionValues(values, values);
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < left || x > right) ? Double.NaN : values[i] * scaleY + shiftY;
+        }
+    }
+    
+    // Возвращает исходную функцию
+    public Function getFunction() {
+        return f;
+    }
+    
+    // Возвращает коэффициент масштабирования по X
+    public double getScaleX() {
+        return scaleX;
+    }
+    
+    // Возвращает величину сдвига по X
+    public double getShiftX() {
+        return shiftX;
+    }
+    
+    // Возвращает коэффициент масштабирования по Y
+    public double getScaleY() {
+        return scaleY;
+    }
+    
+    // Возвращает величину сдвига по Y
+    public double getShiftY() {
+        return shiftY;
+    }
+    
+    // Первообразная известна, если она известна у исходной функции
+    // на преобразованном отрезке
+    public boolean hasAntiderivative(double left, double right) {
+        if (scaleX == 0 || !(f instanceof Integrable)) {
+            return false;
+        }
+        double a = (left - shiftX) / scaleX;
+        double b = (right - shiftX) / scaleX;
+        return ((Integrable) f).hasAntiderivative(Math.min(a, b), Math.max(a, b));
+    }
+    
+    // G(x) = scaleY * scaleX * F((x - shiftX) / scaleX) + shiftY * x
+    public double getAntiderivativeValue(double x) {
+        return ((Integrable) f).getAntiderivativeValue((x - shiftX) / scaleX) * scaleX * scaleY + shiftY * x;
+    }
+}
@@ -4,38 +4,70 @@ import functions.Function;
 
 // Класс для композиции двух функций
 public class Composition implements Function {
-    private Function f1;
-    private Function f2;
+    private final Function f1;
+    private final Function f2;
+    // Области определения f1 и f2 вычисляются один раз при создании
+    private final double leftDomainBorder;
+    private final double rightDomainBorder;
+    private final double innerLeftDomainBorder;
+    private final double innerRightDomainBorder;
     
     // Конструктор получает две функции для композиции
     public Composition(Function f1, Function f2) {
         this.f1 = f1;
         this.f2 = f2;
+        this.leftDomainBorder = f1.getLeftDomainBorder();
+        this.rightDomainBorder = f1.getRightDomainBorder();
+        this.innerLeftDomainBorder = f2.getLeftDomainBorder();
+        this.innerRightDomainBorder = f2.getRightDomainBorder();
     }
     
     // Область определения совпадает с областью определения первой функции
     public double getLeftDomainBorder() {
-        return f1.getLeftDomainBorder();
+        return leftDomainBorder;
     }
     
     // Область определения совпадает с областью определения первой функции
     public double getRightDomainBorder() {
-        return f1.getRightDomainBorder();
+        return rightDomainBorder;
     }
     
     // Значение функции - композиция f2(f1(x))
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (x < leftDomainBorder || x > rightDomainBorder) {
             return Double.NaN;
         }
         double innerValue = f1.getFunctionValue(x);
         // Проверяем, что внутреннее значение попадает в область определения f2
-        if (innerValue < f2.getLeftDomainBorder() || innerValue > f2.getRightDomainBorder()) {
+        if (innerValue < innerLeftDomainBorder || innerValue > innerRightDomainBorder) {
             return Double.NaN;
         }
         return f2.getFunctionValue(innerValue);
     }
     
+    // Значения композиции для массива точек: сначала пакетом вычисляется f1,
+    // затем f2 от полученных значений
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = leftDomainBorder;
+        double right = rightDomainBorder;
+        double innerLeft = innerLeftDomainBorder;
+        double innerRight = innerRightDomainBorder;
+        double[] inner = new double[xs.length];
+        double[] outer = new double[xs.length];
+        f1.getFunctionValues(xs, inner);
+        f2.getFunctionValues(inner, outer);
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            double innerValue = inner[i];
+            if (x < left || x > right || innerValue < innerLeft || innerValue > innerRight) {
+                out[i] = Double.NaN;
+            } else {
+                out[i] = outer[i];
+            }
+        }
+    }
+    
     // Возвращает первую функцию
     public Function getFirstFunction() {
         return f1;
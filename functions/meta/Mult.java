@@ -4,30 +4,60 @@ import functions.Function;
 
 // Класс для произведения двух функций
 public class Mult implements Function {
-    private Function f1;
-    private Function f2;
+    private final Function f1;
+    private final Function f2;
+    // Область определения вычисляется один раз при создании
+    private final double leftDomainBorder;
+    private final double rightDomainBorder;
     
     // Конструктор получает две функции для умножения
     public Mult(Function f1, Function f2) {
         this.f1 = f1;
         this.f2 = f2;
+        this.leftDomainBorder = Math.max(f1.getLeftDomainBorder(), f2.getLeftDomainBorder());
+        this.rightDomainBorder = Math.min(f1.getRightDomainBorder(), f2.getRightDomainBorder());
     }
     
     // Левая граница области определения - максимум левых границ
     public double getLeftDomainBorder() {
-        return Math.max(f1.getLeftDomainBorder(), f2.getLeftDomainBorder());
+        return leftDomainBorder;
     }
     
     // Правая граница области определения - минимум правых границ
     public double getRightDomainBorder() {
-        return Math.min(f1.getRightDomainBorder(), f2.getRightDomainBorder());
+        return rightDomainBorder;
     }
     
     // Значение функции - произведение значений двух функций
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (x < leftDomainBorder || x > rightDomainBorder) {
             return Double.NaN;
         }
         return f1.getFunctionValue(x) * f2.getFunctionValue(x);
     }
+    
+    // Значения произведения для массива точек: каждая функция вычисляется одним пакетом
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = leftDomainBorder;
+        double right = rightDomainBorder;
+        double[] first = new double[xs.length];
+        double[] second = new double[xs.length];
+        f1.getFunctionValues(xs, first);
+        f2.getFunctionValues(xs, second);
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < left || x > right) ? Double.NaN : first[i] * second[i];
+        }
+    }
+    
+    // Возвращает первую функцию
+    public Function getFirstFunction() {
+        return f1;
+    }
+    
+    // Возвращает вторую функцию
+    public Function getSecondFunction() {
+        return f2;
+    }
 }
\ No newline at end of file
@@ -4,33 +4,56 @@ import functions.Function;
 
 // Класс для возведения функции в степень
 public class Power implements Function {
-    private Function f;
-    private double power;
+    private final Function f;
+    private final double power;
+    // Область определения вычисляется один раз при создании
+    private final double leftDomainBorder;
+    private final double rightDomainBorder;
     
     // Конструктор получает функцию и степень
     public Power(Function f, double power) {
         this.f = f;
         this.power = power;
+        this.leftDomainBorder = f.getLeftDomainBorder();
+        this.rightDomainBorder = f.getRightDomainBorder();
     }
     
     // Область определения совпадает с областью определения исходной функции
     public double getLeftDomainBorder() {
-        return f.getLeftDomainBorder();
+        return leftDomainBorder;
     }
     
     // Область определения совпадает с областью определения исходной функции
     public double getRightDomainBorder() {
-        return f.getRightDomainBorder();
+        return rightDomainBorder;
     }
     
     // Значение функции - значение исходной функции в заданной степени
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (x < leftDomainBorder || x > rightDomainBorder) {
             return Double.NaN;
         }
         return Math.pow(f.getFunctionValue(x), power);
     }
     
+    // Значения степени для массива точек
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = leftDomainBorder;
+        double right = rightDomainBorder;
+        double[] values = new double[xs.length];
+        f.getFunctionValues(xs, values);
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < left || x > right) ? Double.NaN : Math.pow(values[i], power);
+        }
+    }
+    
+    // Возвращает исходную функцию
+    public Function getFunction() {
+        return f;
+    }
+    
     // Возвращает степень
     public double getPower() {
         return power;
@@ -1,41 +1,44 @@
 package functions.meta;
 
 import functions.Function;
+import functions.Integrable;
 
 // Класс для масштабирования функции вдоль осей координат
-public class Scale implements Function {
-    private Function f;
-    private double scaleX;
-    private double scaleY;
+public class Scale implements Integrable {
+    private final Function f;
+    private final double scaleX;
+    private final double scaleY;
+    // Область определения вычисляется один раз при создании
+    private final double leftDomainBorder;
+    private final double rightDomainBorder;
     
     // Конструктор получает функцию и коэффициенты масштабирования
     public Scale(Function f, double scaleX, double scaleY) {
         this.f = f;
         this.scaleX = scaleX;
         this.scaleY = scaleY;
+        if (scaleX >= 0) {
+            this.leftDomainBorder = f.getLeftDomainBorder() * scaleX;
+            this.rightDomainBorder = f.getRightDomainBorder() * scaleX;
+        } else {
+            this.leftDomainBorder = f.getRightDomainBorder() * scaleX;
+            this.rightDomainBorder = f.getLeftDomainBorder() * scaleX;
+        }
     }
     
     // Область определения масштабируется вдоль оси X
     public double getLeftDomainBorder() {
-        if (scaleX >= 0) {
-            return f.getLeftDomainBorder() * scaleX;
-        } else {
-            return f.getRightDomainBorder() * scaleX;
-        }
+        return leftDomainBorder;
     }
     
     // Область определения масштабируется вдоль оси X
     public double getRightDomainBorder() {
-        if (scaleX >= 0) {
-            return f.getRightDomainBorder() * scaleX;
-        } else {
-            return f.getLeftDomainBorder() * scaleX;
-        }
+        return rightDomainBorder;
     }
     
     // Значение функции масштабируется вдоль оси Y
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (x < leftDomainBorder || x > rightDomainBorder) {
             return Double.NaN;
         }
         // Для вычисления значения нужно "сжать" аргумент обратно
@@ -43,6 +46,27 @@ public class Scale implements Function {
         return f.getFunctionValue(originalX) * scaleY;
     }
     
+    // Значения масштабированной функции для массива точек
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = leftDomainBorder;
+        double right = rightDomainBorder;
+        double[] values = new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            values[i] = xs[i] / scaleX;
+        }
+        f.getFunctionValues(values, values);
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < left || x > right) ? Double.NaN : values[i] * scaleY;
+        }
+    }
+    
+    // Возвращает исходную функцию
+    public Function getFunction() {
+        return f;
+    }
+    
     // Возвращает коэффициент масштабирования по X
     public double getScaleX() {
         return scaleX;
@@ -52,4 +76,20 @@ public class Scale implements Function {
     public double getScaleY() {
         return scaleY;
     }
-}
\ No newline at end of file
+    
+    // Первообразная известна, если она известна у исходной функции
+    // на сжатом отрезке
+    public boolean hasAntiderivative(double left, double right) {
+        if (scaleX == 0 || !(f instanceof Integrable)) {
+            return false;
+        }
+        double a = left / scaleX;
+        double b = right / scaleX;
+        return ((Integrable) f).hasAntiderivative(Math.min(a, b), Math.max(a, b));
+    }
+    
+    // G(x) = scaleY * scaleX * F(x / scaleX)
+    public double getAntiderivativeValue(double x) {
+        return ((Integrable) f).getAntiderivativeValue(x / scaleX) * scaleX * scaleY;
+    }
+}
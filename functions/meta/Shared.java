@@ -0,0 +1,138 @@
+package functions.meta;
+
+import functions.Function;
+import functions.Integrable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Общий узел для поддерева, которое встречается в выражении несколько раз.
+// Запоминает последнее вычисленное значение, поэтому повторное обращение
+// с тем же аргументом (или пакетом аргументов) не вычисляет поддерево заново
+public class Shared implements Integrable {
+    private static final VarHandle VERSION;
+    private static final VarHandle BATCH_LOCK;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VERSION = lookup.findVarHandle(Shared.class, "version", long.class);
+            BATCH_LOCK = lookup.findVarHandle(Shared.class, "batchLock", int.class);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Function f;
+    private final double leftDomainBorder;
+    private final double rightDomainBorder;
+    // Последняя пара (аргумент, значение) под счётчиком версий (seqlock):
+    // на время записи версия нечётная, читатель, заставший запись, вычисляет
+    // значение сам. Пишущий поток занимает запись CAS и при занятости
+    // просто не обновляет кэш, поэтому вычисления не блокируются
+    private volatile long version;
+    private double lastX;
+    private double lastValue;
+    // Последний пакет: аргументы и значения, переиспользуемые массивы.
+    // Доступ по неблокирующему захвату batchLock; при занятости кэш пропускается
+    private volatile int batchLock;
+    private double[] batchXs = new double[0];
+    private double[] batchValues = new double[0];
+    private int batchLength = -1;
+    
+    // Конструктор получает разделяемую функцию
+    public Shared(Function f) {
+        this.f = f;
+        this.leftDomainBorder = f.getLeftDomainBorder();
+        this.rightDomainBorder = f.getRightDomainBorder();
+    }
+    
+    // Область определения совпадает с областью определения исходной функции
+    public double getLeftDomainBorder() {
+        return leftDomainBorder;
+    }
+    
+    // Область определения совпадает с областью определения исходной функции
+    public double getRightDomainBorder() {
+        return rightDomainBorder;
+    }
+    
+    // Значение берётся из запомненной пары, если аргумент совпадает
+    public double getFunctionValue(double x) {
+        long before = version;
+        if ((before & 1) == 0 && before != 0) {
+            double cachedX = lastX;
+            double cachedValue = lastValue;
+            // Чтения полей не должны переместиться ниже повторного чтения версии
+            VarHandle.loadLoadFence();
+            if (version == before && Double.doubleToRawLongBits(cachedX) == Double.doubleToRawLongBits(x)) {
+                return cachedValue;
+            }
+        }
+        double value = f.getFunctionValue(x);
+        long current = version;
+        if ((current & 1) == 0 && VERSION.compareAndSet(this, current, current + 1)) {
+            // Записи полей не должны переместиться выше нечётной версии
+            VarHandle.storeStoreFence();
+            lastX = x;
+            lastValue = value;
+            version = current + 2;
+        }
+        return value;
+    }
+    
+    // Повторный запрос пакета с теми же аргументами (например, от второй ссылки
+    // на общий узел) получает копию запомненных значений
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (BATCH_LOCK.compareAndSet(this, 0, 1)) {
+            try {
+                if (batchLength == xs.length && sameArguments(xs)) {
+                    System.arraycopy(batchValues, 0, out, 0, xs.length);
+                    return;
+                }
+            } finally {
+                batchLock = 0;
+            }
+        }
+        // При out == xs аргументы будут перезаписаны значениями, поэтому копируются заранее
+        double[] arguments = out == xs ? xs.clone() : xs;
+        f.getFunctionValues(xs, out);
+        if (BATCH_LOCK.compareAndSet(this, 0, 1)) {
+            try {
+                if (batchXs.length < xs.length) {
+                    batchXs = new double[xs.length];
+                    batchValues = new double[xs.length];
+                }
+                System.arraycopy(arguments, 0, batchXs, 0, xs.length);
+                System.arraycopy(out, 0, batchValues, 0, xs.length);
+                batchLength = xs.length;
+            } finally {
+                batchLock = 0;
+            }
+        }
+    }
+    
+    private boolean sameArguments(double[] xs) {
+        for (int i = 0; i < xs.length; i++) {
+            if (Double.doubleToRawLongBits(batchXs[i]) != Double.doubleToRawLongBits(xs[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Возвращает исходную функцию
+    public Function getFunction() {
+        return f;
+    }
+    
+    // Первообразная совпадает с первообразной исходной функции
+    public boolean hasAntiderivative(double left, double right) {
+        return f instanceof Integrable && ((Integrable) f).hasAntiderivative(left, right);
+    }
+    
+    public double getAntiderivativeValue(double x) {
+        return ((Integrable) f).getAntiderivativeValue(x);
+    }
+}
@@ -1,33 +1,39 @@
 package functions.meta;
 
 import functions.Function;
+import functions.Integrable;
 
 // Класс для сдвига функции вдоль осей координат
-public class Shift implements Function {
-    private Function f;
-    private double shiftX;
-    private double shiftY;
+public class Shift implements Integrable {
+    private final Function f;
+    private final double shiftX;
+    private final double shiftY;
+    // Область определения вычисляется один раз при создании
+    private final double leftDomainBorder;
+    private final double rightDomainBorder;
     
     // Конструктор получает функцию и величины сдвига
     public Shift(Function f, double shiftX, double shiftY) {
         this.f = f;
         this.shiftX = shiftX;
         this.shiftY = shiftY;
+        this.leftDomainBorder = f.getLeftDomainBorder() + shiftX;
+        this.rightDomainBorder = f.getRightDomainBorder() + shiftX;
     }
     
     // Область определения сдвигается вдоль оси X
     public double getLeftDomainBorder() {
-        return f.getLeftDomainBorder() + shiftX;
+        return leftDomainBorder;
     }
     
     // Область определения сдвигается вдоль оси X
     public double getRightDomainBorder() {
-        return f.getRightDomainBorder() + shiftX;
+        return rightDomainBorder;
     }
     
     // Значение функции сдвигается вдоль оси Y
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (x < leftDomainBorder || x > rightDomainBorder) {
             return Double.NaN;
         }
         // Для вычисления значения нужно сдвинуть аргумент обратно
@@ -35,6 +41,27 @@ public class Shift implements Function {
         return f.getFunctionValue(originalX) + shiftY;
     }
     
+    // Значения сдвинутой функции для массива точек
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = leftDomainBorder;
+        double right = rightDomainBorder;
+        double[] values = new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            values[i] = xs[i] - shiftX;
+        }
+        f.getFunctionValues(values, values);
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < left || x > right) ? Double.NaN : values[i] + shiftY;
+        }
+    }
+    
+    // Возвращает исходную функцию
+    public Function getFunction() {
+        return f;
+    }
+    
     // Возвращает величину сдвига по X
     public double getShiftX() {
         return shiftX;
@@ -44,4 +71,16 @@ public class Shift implements Function {
     public double getShiftY() {
         return shiftY;
     }
-}
\ No newline at end of file
+    
+    // Первообразная известна, если она известна у исходной функции
+    // на сдвинутом отрезке
+    public boolean hasAntiderivative(double left, double right) {
+        return f instanceof Integrable
+            && ((Integrable) f).hasAntiderivative(left - shiftX, right - shiftX);
+    }
+    
+    // G(x) = F(x - shiftX) + shiftY * x
+    public double getAntiderivativeValue(double x) {
+        return ((Integrable) f).getAntiderivativeValue(x - shiftX) + shiftY * x;
+    }
+}
@@ -0,0 +1,328 @@
+package functions.meta;
+
+import functions.Function;
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Log;
+import functions.basic.Sin;
+import functions.basic.Tan;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Упрощение деревьев мета-функций. Выполняет следующие преобразования:
+//  - цепочки Shift/Scale/Affine сворачиваются в один узел;
+//  - Power от Power с целыми показателями сворачивается в одну степень,
+//    Power со степенью 1 и тождественные сдвиги/масштабы удаляются;
+//  - постоянные сдвиги по Y обоих слагаемых Sum и постоянные множители
+//    обоих сомножителей Mult выносятся и складываются (перемножаются);
+//  - Sum(f, f) заменяется на Scale(f, 1, 2), Mult(f, f) - на Power(f, 2);
+//  - одинаковые поддеревья объединяются в общий узел Shared, который
+//    вычисляется один раз для каждого x.
+// Область определения упрощённого дерева совпадает с исходной, значения
+// совпадают с точностью до округления свёрнутых констант.
+public final class Simplifier {
+    // Поддеревья, уже приведённые к канонической форме, по структурному ключу
+    private final Map<Key, Function> canonical = new HashMap<>();
+    // Количество ссылок на каждый канонический узел
+    private final Map<Function, Integer> references = new IdentityHashMap<>();
+    // Перестроенные узлы (с общими узлами Shared)
+    private final Map<Function, Function> rebuilt = new IdentityHashMap<>();
+
+    private Simplifier() {
+    }
+
+    // Возвращает упрощённое дерево функций
+    public static Function simplify(Function function) {
+        Simplifier simplifier = new Simplifier();
+        Function root = simplifier.canonicalize(function);
+        simplifier.countReferences(root);
+        return simplifier.rebuild(root);
+    }
+
+    // Первый проход: упрощение снизу вверх и объединение одинаковых поддеревьев
+    private Function canonicalize(Function function) {
+        Class<?> type = function.getClass();
+        if (type == Shift.class) {
+            Shift shift = (Shift) function;
+            return affine(canonicalize(shift.getFunction()), 1, shift.getShiftX(), 1, shift.getShiftY(), function);
+        }
+        if (type == Scale.class) {
+            Scale scale = (Scale) function;
+            return affine(canonicalize(scale.getFunction()), scale.getScaleX(), 0, scale.getScaleY(), 0, function);
+        }
+        if (type == Affine.class) {
+            Affine affine = (Affine) function;
+            return affine(canonicalize(affine.getFunction()), affine.getScaleX(), affine.getShiftX(),
+                affine.getScaleY(), affine.getShiftY(), function);
+        }
+        if (type == Power.class) {
+            Power power = (Power) function;
+            return power(canonicalize(power.getFunction()), power.getPower());
+        }
+        if (type == Sum.class) {
+            Sum sum = (Sum) function;
+            return sum(canonicalize(sum.getFirstFunction()), canonicalize(sum.getSecondFunction()));
+        }
+        if (type == Mult.class) {
+            Mult mult = (Mult) function;
+            return mult(canonicalize(mult.getFirstFunction()), canonicalize(mult.getSecondFunction()));
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            Function f1 = canonicalize(composition.getFirstFunction());
+            Function f2 = canonicalize(composition.getSecondFunction());
+            return intern(new Key(Composition.class, new Function[] {f1, f2}, new double[0]),
+                () -> new Composition(f1, f2));
+        }
+        if (type == Shared.class) {
+            return canonicalize(((Shared) function).getFunction());
+        }
+        // Базовые функции без параметров равны по классу, логарифмы - по основанию,
+        // остальные листья (табулированные и т.д.) сравниваются по ссылке
+        if (type == Sin.class || type == Cos.class || type == Tan.class || type == Exp.class) {
+            return intern(new Key(type, new Function[0], new double[0]), () -> function);
+        }
+        if (type == Log.class) {
+            return intern(new Key(type, new Function[0], new double[] {((Log) function).getBase()}), () -> function);
+        }
+        return intern(new Key(type, new Function[] {function}, new double[0]), () -> function);
+    }
+
+    // Преобразование f((x - shiftX) / scaleX) * scaleY + shiftY; original - исходный
+    // узел, область определения которого сохраняется
+    private Function affine(Function f, double scaleX, double shiftX, double scaleY, double shiftY,
+                            Function original) {
+        Function inner = f;
+        // Вырожденные масштабы не сворачиваются: область и значения
+        // таких узлов зависят от порядка операций
+        if (scaleX != 0 && scaleY != 0 && f.getClass() == Affine.class) {
+            // outer(inner(x)): f(((x - p2) / q2 - p1) / q1) * r1 * r2 + s1 * r2 + s2
+            Affine a = (Affine) f;
+            if (a.getScaleX() != 0 && a.getScaleY() != 0) {
+                inner = a.getFunction();
+                shiftX = shiftX + a.getShiftX() * scaleX;
+                scaleX = a.getScaleX() * scaleX;
+                shiftY = a.getShiftY() * scaleY + shiftY;
+                scaleY = a.getScaleY() * scaleY;
+            }
+        }
+        if (scaleX == 1 && shiftX == 0 && scaleY == 1 && shiftY == 0
+                && inner.getLeftDomainBorder() == original.getLeftDomainBorder()
+                && inner.getRightDomainBorder() == original.getRightDomainBorder()) {
+            return inner;
+        }
+        Function target = inner;
+        double sx = scaleX;
+        double px = shiftX;
+        double sy = scaleY;
+        double py = shiftY;
+        double left = original.getLeftDomainBorder();
+        double right = original.getRightDomainBorder();
+        return intern(new Key(Affine.class, new Function[] {target}, new double[] {sx, px, sy, py}),
+            () -> new Affine(target, sx, px, sy, py, left, right));
+    }
+
+    private Function power(Function f, double power) {
+        if (power == 1) {
+            return f;
+        }
+        if (f.getClass() == Power.class) {
+            Power inner = (Power) f;
+            double product = inner.getPower() * power;
+            // Для целых показателей (f^a)^b = f^(a*b) при любом знаке f
+            if (isInteger(inner.getPower()) && isInteger(power) && Math.abs(product) < 0x1p53) {
+                return power(inner.getFunction(), product);
+            }
+        }
+        return intern(new Key(Power.class, new Function[] {f}, new double[] {power}),
+            () -> new Power(f, power));
+    }
+
+    private Function sum(Function f1, Function f2) {
+        if (f1 == f2) {
+            // f + f = 2f без погрешности
+            return intern(new Key(Scale.class, new Function[] {f1}, new double[] {1, 0, 2, 0}),
+                () -> new Scale(f1, 1, 2));
+        }
+        if (isOffsetOnly(f1) && isOffsetOnly(f2)) {
+            // (g1 + c1) + (g2 + c2) = (g1 + g2) + (c1 + c2)
+            Affine a1 = (Affine) f1;
+            Affine a2 = (Affine) f2;
+            Function inner = sum(a1.getFunction(), a2.getFunction());
+            double offset = a1.getShiftY() + a2.getShiftY();
+            return affineOver(inner, 1, offset);
+        }
+        return intern(new Key(Sum.class, new Function[] {f1, f2}, new double[0]), () -> new Sum(f1, f2));
+    }
+
+    private Function mult(Function f1, Function f2) {
+        if (f1 == f2) {
+            // f * f = f^2 (Math.pow(v, 2) вычисляется как v * v)
+            return power(f1, 2);
+        }
+        if (isFactorOnly(f1) && isFactorOnly(f2)) {
+            // (c1 * g1) * (c2 * g2) = (g1 * g2) * (c1 * c2)
+            Affine a1 = (Affine) f1;
+            Affine a2 = (Affine) f2;
+            Function inner = mult(a1.getFunction(), a2.getFunction());
+            double factor = a1.getScaleY() * a2.getScaleY();
+            return affineOver(inner, factor, 0);
+        }
+        return intern(new Key(Mult.class, new Function[] {f1, f2}, new double[0]), () -> new Mult(f1, f2));
+    }
+
+    // Преобразование только по оси Y: область определения совпадает с областью f
+    private Function affineOver(Function f, double scaleY, double shiftY) {
+        if (scaleY == 1 && shiftY == 0) {
+            return f;
+        }
+        return intern(new Key(Affine.class, new Function[] {f}, new double[] {1, 0, scaleY, shiftY}),
+            () -> new Affine(f, 1, 0, scaleY, shiftY, f.getLeftDomainBorder(), f.getRightDomainBorder()));
+    }
+
+    // g(x) + c
+    private static boolean isOffsetOnly(Function f) {
+        if (f.getClass() != Affine.class) {
+            return false;
+        }
+        Affine a = (Affine) f;
+        return a.getScaleX() == 1 && a.getShiftX() == 0 && a.getScaleY() == 1;
+    }
+
+    // c * g(x)
+    private static boolean isFactorOnly(Function f) {
+        if (f.getClass() != Affine.class) {
+            return false;
+        }
+        Affine a = (Affine) f;
+        return a.getScaleX() == 1 && a.getShiftX() == 0 && a.getShiftY() == 0 && a.getScaleY() != 0;
+    }
+
+    private static boolean isInteger(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value);
+    }
+
+    private interface NodeFactory {
+        Function create();
+    }
+
+    // Возвращает уже существующий узел с тем же ключом или создаёт новый
+    private Function intern(Key key, NodeFactory factory) {
+        Function existing = canonical.get(key);
+        if (existing == null) {
+            existing = factory.create();
+            canonical.put(key, existing);
+        }
+        return existing;
+    }
+
+    // Второй проход: подсчёт ссылок на узлы получившегося графа
+    private void countReferences(Function function) {
+        Integer count = references.get(function);
+        references.put(function, count == null ? 1 : count + 1);
+        if (count != null) {
+            return;
+        }
+        for (Function child : children(function)) {
+            countReferences(child);
+        }
+    }
+
+    // Третий проход: узлы, на которые есть несколько ссылок, оборачиваются в Shared
+    private Function rebuild(Function function) {
+        Function done = rebuilt.get(function);
+        if (done != null) {
+            return done;
+        }
+        Function result;
+        Class<?> type = function.getClass();
+        if (type == Affine.class) {
+            Affine a = (Affine) function;
+            result = new Affine(rebuild(a.getFunction()), a.getScaleX(), a.getShiftX(),
+                a.getScaleY(), a.getShiftY(), a.getLeftDomainBorder(), a.getRightDomainBorder());
+        } else if (type == Scale.class) {
+            Scale s = (Scale) function;
+            result = new Scale(rebuild(s.getFunction()), s.getScaleX(), s.getScaleY());
+        } else if (type == Power.class) {
+            Power p = (Power) function;
+            result = new Power(rebuild(p.getFunction()), p.getPower());
+        } else if (type == Sum.class) {
+            Sum s = (Sum) function;
+            result = new Sum(rebuild(s.getFirstFunction()), rebuild(s.getSecondFunction()));
+        } else if (type == Mult.class) {
+            Mult m = (Mult) function;
+            result = new Mult(rebuild(m.getFirstFunction()), rebuild(m.getSecondFunction()));
+        } else if (type == Composition.class) {
+            Composition c = (Composition) function;
+            result = new Composition(rebuild(c.getFirstFunction()), rebuild(c.getSecondFunction()));
+        } else {
+            result = function;
+        }
+        if (result != function && references.get(function) > 1) {
+            result = new Shared(result);
+        }
+        rebuilt.put(function, result);
+        return result;
+    }
+
+    private static Function[] children(Function function) {
+        Class<?> type = function.getClass();
+        if (type == Affine.class) {
+            return new Function[] {((Affine) function).getFunction()};
+        }
+        if (type == Scale.class) {
+            return new Function[] {((Scale) function).getFunction()};
+        }
+        if (type == Power.class) {
+            return new Function[] {((Power) function).getFunction()};
+        }
+        if (type == Sum.class) {
+            return new Function[] {((Sum) function).getFirstFunction(), ((Sum) function).getSecondFunction()};
+        }
+        if (type == Mult.class) {
+            return new Function[] {((Mult) function).getFirstFunction(), ((Mult) function).getSecondFunction()};
+        }
+        if (type == Composition.class) {
+            return new Function[] {((Composition) function).getFirstFunction(),
+                ((Composition) function).getSecondFunction()};
+        }
+        return new Function[0];
+    }
+
+    // Структурный ключ узла: тип, дочерние узлы (по ссылке) и числовые параметры
+    private static final class Key {
+        private final Class<?> type;
+        private final Function[] children;
+        private final double[] params;
+
+        Key(Class<?> type, Function[] children, double[] params) {
+            this.type = type;
+            this.children = children;
+            this.params = params;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            if (type != that.type || children.length != that.children.length) return false;
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != that.children[i]) return false;
+            }
+            return Arrays.equals(params, that.params);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = type.hashCode();
+            for (Function child : children) {
+                hash = hash * 31 + System.identityHashCode(child);
+            }
+            return hash * 31 + Arrays.hashCode(params);
+        }
+    }
+}
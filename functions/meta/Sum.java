@@ -1,33 +1,75 @@
 package functions.meta;
 
 import functions.Function;
+import functions.Integrable;
 
 // Класс для суммы двух функций
-public class Sum implements Function {
-    private Function f1;
-    private Function f2;
+public class Sum implements Integrable {
+    private final Function f1;
+    private final Function f2;
+    // Область определения вычисляется один раз при создании
+    private final double leftDomainBorder;
+    private final double rightDomainBorder;
     
     // Конструктор получает две функции для сложения
     public Sum(Function f1, Function f2) {
         this.f1 = f1;
         this.f2 = f2;
+        this.leftDomainBorder = Math.max(f1.getLeftDomainBorder(), f2.getLeftDomainBorder());
+        this.rightDomainBorder = Math.min(f1.getRightDomainBorder(), f2.getRightDomainBorder());
     }
     
     // Левая граница области определения - максимум левых границ
     public double getLeftDomainBorder() {
-        return Math.max(f1.getLeftDomainBorder(), f2.getLeftDomainBorder());
+        return leftDomainBorder;
     }
     
     // Правая граница области определения - минимум правых границ
     public double getRightDomainBorder() {
-        return Math.min(f1.getRightDomainBorder(), f2.getRightDomainBorder());
+        return rightDomainBorder;
     }
     
     // Значение функции - сумма значений двух функций
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (x < leftDomainBorder || x > rightDomainBorder) {
             return Double.NaN;
         }
         return f1.getFunctionValue(x) + f2.getFunctionValue(x);
     }
-}
\ No newline at end of file
+    
+    // Значения суммы для массива точек: каждая функция вычисляется одним пакетом
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = leftDomainBorder;
+        double right = rightDomainBorder;
+        double[] first = new double[xs.length];
+        double[] second = new double[xs.length];
+        f1.getFunctionValues(xs, first);
+        f2.getFunctionValues(xs, second);
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < left || x > right) ? Double.NaN : first[i] + second[i];
+        }
+    }
+    
+    // Возвращает первую функцию
+    public Function getFirstFunction() {
+        return f1;
+    }
+    
+    // Возвращает вторую функцию
+    public Function getSecondFunction() {
+        return f2;
+    }
+    
+    // Первообразная суммы известна, если известны первообразные обоих слагаемых
+    public boolean hasAntiderivative(double left, double right) {
+        return f1 instanceof Integrable && f2 instanceof Integrable
+            && ((Integrable) f1).hasAntiderivative(left, right)
+            && ((Integrable) f2).hasAntiderivative(left, right);
+    }
+    
+    public double getAntiderivativeValue(double x) {
+        return ((Integrable) f1).getAntiderivativeValue(x) + ((Integrable) f2).getAntiderivativeValue(x);
+    }
+}
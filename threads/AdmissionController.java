@@ -0,0 +1,125 @@
+package threads;
+
+import functions.Function;
+import functions.Functions;
+import functions.Integrable;
+import functions.IntegrationResult;
+import functions.TabulatedFunction;
+
+// Контроль допуска заданий по стоимости. Стоимость оценивается как количество
+// вычислений функции методом трапеций ((right - left) / step + 1, ноль для
+// функций с известной первообразной), умноженное на среднее время одного
+// вычисления, которое уточняется по фактическим замерам. Дешёвые задания
+// идут в основную очередь, дорогие - в отдельную, а задания, превышающие
+// бюджет вычислений или срок выполнения, переводятся на адаптивный метод.
+public class AdmissionController {
+    private static final double DEFAULT_FAST_LANE_EVALUATIONS = 100_000;
+    private static final double DEFAULT_MAX_EVALUATIONS = 10_000_000;
+    // Начальная оценка времени одного вычисления функции, нс
+    private static final double INITIAL_NANOS_PER_EVALUATION = 20.0;
+    // Вес нового замера в скользящем среднем
+    private static final double SMOOTHING = 0.1;
+    // Точность адаптивного метода для заданий сверх бюджета
+    private static final double ABSOLUTE_TOLERANCE = 1e-10;
+    private static final double RELATIVE_TOLERANCE = 1e-12;
+
+    private final double fastLaneEvaluations;
+    private final double maxEvaluations;
+    private final long deadlineNanos;
+    private volatile double nanosPerEvaluation = INITIAL_NANOS_PER_EVALUATION;
+
+    public AdmissionController() {
+        this(DEFAULT_FAST_LANE_EVALUATIONS, DEFAULT_MAX_EVALUATIONS, 0);
+    }
+
+    // fastLaneEvaluations - наибольшая стоимость задания для основной очереди;
+    // maxEvaluations - бюджет вычислений на задание; deadlineNanos - срок
+    // выполнения задания (0 - без срока)
+    public AdmissionController(double fastLaneEvaluations, double maxEvaluations, long deadlineNanos) {
+        if (fastLaneEvaluations < 0 || maxEvaluations < fastLaneEvaluations) {
+            throw new IllegalArgumentException("Бюджет должен быть не меньше порога основной очереди");
+        }
+        if (deadlineNanos < 0) {
+            throw new IllegalArgumentException("Срок выполнения не может быть отрицательным");
+        }
+        this.fastLaneEvaluations = fastLaneEvaluations;
+        this.maxEvaluations = maxEvaluations;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    // Выбирает очередь для задания
+    public AdmissionLane admit(Function function, double left, double right, double step) {
+        double evaluations = estimateEvaluations(function, left, right, step);
+        if (!(evaluations <= getEvaluationBudget())) {
+            // Сюда же попадает NaN (например, неположительный шаг): адаптивный
+            // метод проверит параметры и сообщит об ошибке
+            return AdmissionLane.ADAPTIVE;
+        }
+        return evaluations <= fastLaneEvaluations ? AdmissionLane.FAST : AdmissionLane.SLOW;
+    }
+
+    // Оценка количества вычислений функции методом трапеций
+    public double estimateEvaluations(Function function, double left, double right, double step) {
+        return Functions.integrationEvaluations(function, left, right, step);
+    }
+
+    // Оценка времени выполнения задания методом трапеций, нс
+    public double estimateNanos(Function function, double left, double right, double step) {
+        return estimateEvaluations(function, left, right, step) * nanosPerEvaluation;
+    }
+
+    // Бюджет вычислений на задание с учётом срока выполнения
+    public long getEvaluationBudget() {
+        double budget = maxEvaluations;
+        if (deadlineNanos > 0) {
+            budget = Math.min(budget, deadlineNanos / nanosPerEvaluation);
+        }
+        return (long) Math.max(budget, 1);
+    }
+
+    // Учитывает фактическое время выполнения задания
+    public void observe(double evaluations, long nanos) {
+        if (evaluations >= 1 && nanos > 0) {
+            double sample = nanos / evaluations;
+            nanosPerEvaluation = nanosPerEvaluation * (1 - SMOOTHING) + sample * SMOOTHING;
+        }
+    }
+
+    public double getNanosPerEvaluation() {
+        return nanosPerEvaluation;
+    }
+
+    // Интегрирует задание выбранным для очереди способом. Возвращает значение
+    // интеграла; в evaluations[0] записывается количество вычислений функции
+    public double integrate(AdmissionLane lane, Function function, double left, double right, double step,
+                            long[] evaluations) {
+        if (lane == AdmissionLane.ADAPTIVE) {
+            if (!(step > 0)) {
+                throw new IllegalArgumentException("Шаг должен быть положительным");
+            }
+            long budget = Math.max(getEvaluationBudget(), 15);
+            IntegrationResult result = Functions.integrateAdaptive(
+                function, left, right, ABSOLUTE_TOLERANCE, RELATIVE_TOLERANCE, budget);
+            evaluations[0] = result.getEvaluations();
+            return result.getValue();
+        }
+        double estimate = estimateEvaluations(function, left, right, step);
+        long start = System.nanoTime();
+        double result = Functions.integrate(function, left, right, step);
+        // Табулированные функции и функции с первообразной интегрируются без
+        // сетки: их время не характеризует одно вычисление функции
+        if (usesGrid(function, left, right)) {
+            observe(estimate, System.nanoTime() - start);
+        }
+        evaluations[0] = (long) estimate;
+        return result;
+    }
+
+    // Интегрирует ли Functions.integrate функцию методом трапеций по сетке
+    private static boolean usesGrid(Function function, double left, double right) {
+        if (function instanceof TabulatedFunction) {
+            return false;
+        }
+        return !(function instanceof Integrable && ((Integrable) function).hasAntiderivative(left, right));
+    }
+}
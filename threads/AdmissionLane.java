@@ -0,0 +1,14 @@
+package threads;
+
+// Решение контроля допуска для задания на интегрирование
+public enum AdmissionLane {
+    // Дешёвое задание: выполняется в основной очереди
+    FAST,
+    // Дорогое задание в пределах бюджета: выполняется отдельными потоками,
+    // чтобы не задерживать дешёвые задания
+    SLOW,
+    // Стоимость метода трапеций превышает бюджет: задание интегрируется
+    // адаптивным методом с ограниченным числом вычислений функции
+    // в тех же отдельных потоках, что и SLOW
+    ADAPTIVE
+}
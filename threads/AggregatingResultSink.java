@@ -0,0 +1,96 @@
+package threads;
+
+import functions.Function;
+
+// Агрегация результатов в памяти: количество заданий и ошибок, сумма
+// (с компенсацией округления), минимум и максимум значений интегралов.
+// Вывода нет, поэтому записи не передаются потоку записи пакетами, а
+// учитываются сразу в вызывающем потоке под монитором приёмника: в отличие
+// от пакетов, они не отбрасываются при нагрузке. Записи, полученные после
+// close(), не учитываются (getDroppedCount()); после close() значения окончательные
+public class AggregatingResultSink extends ResultSink {
+    private volatile long generatedCount;
+    private volatile long resultCount;
+    private volatile long errorCount;
+    private double sum;
+    private double compensation;
+    private volatile double total;
+    private volatile double min = Double.POSITIVE_INFINITY;
+    private volatile double max = Double.NEGATIVE_INFINITY;
+
+    @Override
+    public synchronized void onTaskGenerated(long sequence, Function function, double left, double right,
+                                             double step) {
+        if (isClosed()) {
+            countDropped();
+            return;
+        }
+        generatedCount++;
+    }
+
+    @Override
+    public synchronized void onResult(long sequence, Function function, double left, double right, double step,
+                                      double result) {
+        if (isClosed()) {
+            countDropped();
+            return;
+        }
+        resultCount++;
+        // Суммирование по алгоритму Ноймайера
+        double t = sum + result;
+        if (Math.abs(sum) >= Math.abs(result)) {
+            compensation += (sum - t) + result;
+        } else {
+            compensation += (result - t) + sum;
+        }
+        sum = t;
+        total = sum + compensation;
+        min = Math.min(min, result);
+        max = Math.max(max, result);
+    }
+
+    @Override
+    public synchronized void onError(long sequence, Function function, double left, double right, double step,
+                                     RuntimeException error) {
+        if (isClosed()) {
+            countDropped();
+            return;
+        }
+        errorCount++;
+    }
+
+    // Записи учитываются в вызывающем потоке, пакетов для записи не бывает
+    @Override
+    protected void write(ResultBatch batch) {
+    }
+
+    public long getGeneratedCount() {
+        return generatedCount;
+    }
+
+    public long getResultCount() {
+        return resultCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public double getSum() {
+        return total;
+    }
+
+    // Среднее значение интеграла (NaN, если результатов нет)
+    public double getMean() {
+        long count = resultCount;
+        return count == 0 ? Double.NaN : total / count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
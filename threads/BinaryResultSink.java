@@ -0,0 +1,58 @@
+package threads;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Асинхронная запись результатов в двоичный файл. Каждая запись занимает
+// RECORD_SIZE байт: вид записи (byte), номер задания (long), левая и правая
+// границы, шаг и значение (double). Порядок байтов - как у DataOutputStream
+// (big-endian); сообщения об ошибках не сохраняются, значение ошибки - NaN
+public class BinaryResultSink extends ResultSink {
+    public static final int RECORD_SIZE = 1 + 8 + 4 * 8;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    // Файл создаётся заново (или перезаписывается)
+    public BinaryResultSink(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    protected void write(ResultBatch batch) throws IOException {
+        for (int i = 0; i < batch.size(); i++) {
+            if (buffer.remaining() < RECORD_SIZE) {
+                drainBuffer();
+            }
+            buffer.put(batch.getKind(i));
+            buffer.putLong(batch.getSequence(i));
+            buffer.putDouble(batch.getLeftBorder(i));
+            buffer.putDouble(batch.getRightBorder(i));
+            buffer.putDouble(batch.getStep(i));
+            buffer.putDouble(batch.getValue(i));
+        }
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        drainBuffer();
+    }
+
+    @Override
+    protected void closeOutput() throws IOException {
+        channel.close();
+    }
+
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,28 @@
+package threads;
+
+import functions.Function;
+import functions.basic.Log;
+
+// Синхронный вывод на консоль в формате Generator/Integrator.
+// Для большого числа заданий используйте асинхронный ConsoleResultSink
+public class ConsoleResultHandler implements ResultHandler {
+
+    @Override
+    public void onTaskGenerated(long sequence, Function function, double left, double right, double step) {
+        double base = function instanceof Log ? ((Log) function).getBase() : Double.NaN;
+        System.out.printf("Generator: Source %.4f %.4f %.4f (base=%.4f, task=%d)%n", 
+            left, right, step, base, sequence + 1);
+    }
+
+    public void onResult(long sequence, Function function, double left, double right, double step,
+                         double result) {
+        System.out.printf("Integrator: Result %.4f %.4f %.4f %.8f (task=%d)%n", 
+            left, right, step, result, sequence + 1);
+    }
+
+    public void onError(long sequence, Function function, double left, double right, double step,
+                        RuntimeException error) {
+        System.out.printf("Integrator: Ошибка в задании %d: %s%n", 
+            sequence + 1, error.getMessage());
+    }
+}
@@ -0,0 +1,181 @@
+package threads;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+// Асинхронный вывод результатов в текстовом виде в формате Generator/Integrator.
+// Строки форматируются без String.format в переиспользуемый буфер
+// и выводятся большими блоками. Числа выводятся так же, как printf
+// в ConsoleResultHandler: с десятичным разделителем и цифрами локали
+// форматирования по умолчанию
+public class ConsoleResultSink extends ResultSink {
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L
+    };
+
+    private final Writer out;
+    private final boolean closeWriter;
+    // Десятичный разделитель и цифра ноль локали, как у "%.Nf" в printf
+    private final char decimalSeparator;
+    private final char zeroDigit;
+    private final StringBuilder text = new StringBuilder(FLUSH_THRESHOLD + 256);
+    private char[] chars = new char[FLUSH_THRESHOLD + 256];
+
+    // Вывод в стандартный поток вывода
+    public ConsoleResultSink() {
+        this(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out)), false);
+    }
+
+    // closeWriter - закрывать ли out при закрытии получателя
+    public ConsoleResultSink(Writer out, boolean closeWriter) {
+        this.out = out;
+        this.closeWriter = closeWriter;
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.zeroDigit = symbols.getZeroDigit();
+    }
+
+    @Override
+    protected void write(ResultBatch batch) throws IOException {
+        for (int i = 0; i < batch.size(); i++) {
+            switch (batch.getKind(i)) {
+                case ResultBatch.GENERATED:
+                    text.append("Generator: Source ");
+                    appendBorders(batch, i);
+                    text.append(" (base=");
+                    appendNumber(batch.getValue(i), 4);
+                    text.append(", task=");
+                    appendNumber(batch.getSequence(i) + 1);
+                    text.append(")\n");
+                    break;
+                case ResultBatch.RESULT:
+                    text.append("Integrator: Result ");
+                    appendBorders(batch, i);
+                    text.append(' ');
+                    appendNumber(batch.getValue(i), 8);
+                    text.append(" (task=");
+                    appendNumber(batch.getSequence(i) + 1);
+                    text.append(")\n");
+                    break;
+                default:
+                    text.append("Integrator: Ошибка в задании ");
+                    appendNumber(batch.getSequence(i) + 1);
+                    text.append(": ").append(batch.getMessage(i)).append('\n');
+                    break;
+            }
+            if (text.length() >= FLUSH_THRESHOLD) {
+                drainText();
+            }
+        }
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        drainText();
+        out.flush();
+    }
+
+    @Override
+    protected void closeOutput() throws IOException {
+        if (closeWriter) {
+            out.close();
+        } else {
+            out.flush();
+        }
+    }
+
+    private void appendBorders(ResultBatch batch, int i) {
+        appendNumber(batch.getLeftBorder(i), 4);
+        text.append(' ');
+        appendNumber(batch.getRightBorder(i), 4);
+        text.append(' ');
+        appendNumber(batch.getStep(i), 4);
+    }
+
+    // Переносит накопленный текст в Writer через переиспользуемый массив символов
+    private void drainText() throws IOException {
+        int length = text.length();
+        if (length == 0) {
+            return;
+        }
+        if (chars.length < length) {
+            chars = new char[length];
+        }
+        text.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+        text.setLength(0);
+    }
+
+    // Дописывает value с digits знаками после запятой с разделителем
+    // и цифрами локали
+    private void appendNumber(double value, int digits) {
+        int start = text.length();
+        appendFixed(text, value, digits);
+        if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+            localize(start);
+        }
+    }
+
+    // Дописывает целое число цифрами локали, как "%d"
+    private void appendNumber(long value) {
+        int start = text.length();
+        text.append(value);
+        localize(start);
+    }
+
+    // Заменяет точку и цифры, дописанные начиная с start, на символы локали
+    private void localize(int start) {
+        if (decimalSeparator == '.' && zeroDigit == '0') {
+            return;
+        }
+        for (int k = start; k < text.length(); k++) {
+            char c = text.charAt(k);
+            if (c == '.') {
+                text.setCharAt(k, decimalSeparator);
+            } else if (c >= '0' && c <= '9') {
+                text.setCharAt(k, (char) (zeroDigit + (c - '0')));
+            }
+        }
+    }
+
+    // Дописывает value с digits знаками после точки так же, как
+    // String.format(Locale.ROOT, "%.<digits>f", value)
+    // (округление HALF_UP десятичного представления Double.toString)
+    static void appendFixed(StringBuilder sb, double value, int digits) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            sb.append(value > 0 ? "Infinity" : value < 0 ? "-Infinity" : "NaN");
+            return;
+        }
+        long scale = POWERS_OF_TEN[digits];
+        double scaled = Math.abs(value) * scale;
+        double fraction = scaled - Math.floor(scaled);
+        // Целочисленный путь годится вдали от половины единицы последнего знака;
+        // вблизи половины (с учётом того, что Double.toString может отличаться
+        // от точного значения на половину ulp) и для больших чисел -
+        // десятичное округление
+        double tolerance = 1e-6 + 2 * Math.ulp(value) * scale;
+        boolean negative = value < 0 || (value == 0 && 1 / value < 0);
+        if (negative) {
+            sb.append('-');
+        }
+        if (scaled >= 1e15 || Math.abs(fraction - 0.5) < tolerance) {
+            sb.append(BigDecimal.valueOf(Math.abs(value)).setScale(digits, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+        long units = (long) Math.floor(scaled + 0.5);
+        long integer = units / scale;
+        long remainder = units % scale;
+        sb.append(integer).append('.');
+        for (long p = scale / 10; p > 0; p /= 10) {
+            sb.append((char) ('0' + (remainder / p) % 10));
+        }
+    }
+}
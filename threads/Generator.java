@@ -1,62 +1,78 @@
 package threads;
 
 import functions.Function;
-import functions.basic.Log;
 import java.util.Random;
-import java.util.concurrent.Semaphore;
 
 public class Generator extends Thread {
-    private Task task;
-    private Semaphore semaphore;
+    private TaskRingBuffer buffer;
+    private int tasksCount;
+    private boolean closeOnFinish;
+    private ResultHandler handler;
+    private PipelineMetrics metrics;
     private Random random = new Random();
     
     private volatile boolean running = true;
     
-    public Generator(Task task, Semaphore semaphore) {
-        this.task = task;
-        this.semaphore = semaphore;
+    // Генератор записывает tasksCount заданий в буфер и закрывает его по завершении
+    public Generator(TaskRingBuffer buffer, int tasksCount) {
+        this(buffer, tasksCount, true);
+    }
+    
+    // При нескольких генераторах буфер закрывается владельцем (например,
+    // IntegratorPool.shutdown()) после завершения всех генераторов
+    public Generator(TaskRingBuffer buffer, int tasksCount, boolean closeOnFinish) {
+        this(buffer, tasksCount, closeOnFinish, new ConsoleResultHandler());
+    }
+    
+    // Сведения о созданных заданиях передаются handler (например, асинхронному
+    // ResultSink) вместо вывода на консоль в цикле генерации
+    public Generator(TaskRingBuffer buffer, int tasksCount, boolean closeOnFinish, ResultHandler handler) {
+        this.buffer = buffer;
+        this.tasksCount = tasksCount;
+        this.closeOnFinish = closeOnFinish;
+        this.handler = handler;
+    }
+    
+    // Подключает учёт созданных заданий; вызывается до start()
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
     }
     
     @Override
     public void run() {
         try {
-            for (int i = 0; i < task.getTasksCount(); i++) {
+            for (int i = 0; i < tasksCount; i++) {
                 if (!running || isInterrupted()) {
                     System.out.println("Генератор: получен сигнал прерывания");
                     break;
                 }
                 
                 // Генерируем параметры
-                double base = 1 + random.nextDouble() * 9;
-                double left = random.nextDouble() * 100;
-                double right = 100 + random.nextDouble() * 100;
-                double step = random.nextDouble();
-                
-                if (left <= 0) left = 0.001;
-                
-                // Захватываем семафор для записи (только один поток)
-                semaphore.acquire();
+                IntegrationTask task = RandomTasks.next(i, random);
+                Function function = task.getFunction();
+                double left = task.getLeftBorder();
+                double right = task.getRightBorder();
+                double step = task.getStep();
                 
-                try {
-                    // Устанавливаем задание
-                    task.setFunction(new Log(base));
-                    task.setLeftBorder(left);
-                    task.setRightBorder(right);
-                    task.setStep(step);
-                } finally {
-                    // Освобождаем семафор
-                    semaphore.release();
+                // Записываем задание в свободную ячейку буфера; если буфер
+                // заполнен, генератор ждёт, пока интегратор освободит ячейку
+                long sequence = buffer.put(function, left, right, step);
+                if (metrics != null) {
+                    metrics.taskGenerated();
                 }
                 
-                System.out.printf("Generator: Source %.4f %.4f %.4f (base=%.4f, task=%d)%n", 
-                    left, right, step, base, i+1);
-                
-                Thread.sleep(1);
+                handler.onTaskGenerated(sequence, function, left, right, step);
             }
         } catch (InterruptedException e) {
             System.out.println("Генератор: прерван");
             Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            System.out.println("Генератор: буфер заданий закрыт");
         } finally {
+            // Интегратор дочитает оставшиеся задания и завершится
+            if (closeOnFinish) {
+                buffer.close();
+            }
             System.out.println("Генератор: завершил работу");
         }
     }
@@ -65,4 +81,4 @@ public class Generator extends Thread {
         running = false;
         this.interrupt();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package threads;
+
+import functions.Functions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+// Звено реактивного конвейера: получает задания от издателя (например,
+// TaskPublisher), интегрирует их и публикует результаты своим подписчикам.
+// Задания запрашиваются у источника только по спросу подписчиков: запрос
+// подписчика request(n) увеличивает спрос, и у источника запрашивается
+// наименьший неудовлетворённый спрос среди подписчиков за вычетом уже
+// запрошенных, но ещё не полученных заданий. Пока подписчиков нет или они
+// ничего не запрашивают, задания не создаются и не теряются.
+public class IntegratingProcessor extends SubmissionPublisher<TaskResult>
+        implements Flow.Processor<IntegrationTask, TaskResult> {
+    // Доступ к полям - под монитором this
+    private Flow.Subscription upstream;
+    // Запрошено у источника, но ещё не получено
+    private long outstanding;
+
+    public IntegratingProcessor() {
+        super();
+    }
+
+    // Результаты доставляются подписчикам задачами executor; у каждого
+    // подписчика буфер не более maxBufferCapacity результатов
+    public IntegratingProcessor(Executor executor, int maxBufferCapacity) {
+        super(executor, maxBufferCapacity);
+    }
+
+    // Подписчик подключается через обёртку, сообщающую звену о его запросах
+    @Override
+    public void subscribe(Flow.Subscriber<? super TaskResult> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Подписчик не задан");
+        }
+        super.subscribe(new DemandSubscriber(subscriber));
+    }
+
+    @Override
+    public boolean isSubscribed(Flow.Subscriber<? super TaskResult> subscriber) {
+        for (Flow.Subscriber<? super TaskResult> current : getSubscribers()) {
+            if (current == subscriber) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Возвращает подписчиков без обёрток
+    @Override
+    public List<Flow.Subscriber<? super TaskResult>> getSubscribers() {
+        List<Flow.Subscriber<? super TaskResult>> subscribers = new ArrayList<>();
+        for (Flow.Subscriber<? super TaskResult> current : super.getSubscribers()) {
+            subscribers.add(current instanceof DemandSubscriber ? ((DemandSubscriber) current).delegate : current);
+        }
+        return subscribers;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            if (upstream != null) {
+                // Звено подписывается только на один источник
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        // Подписчики могли запросить результаты раньше, чем появился источник
+        requestUpstream();
+    }
+
+    @Override
+    public void onNext(IntegrationTask task) {
+        synchronized (this) {
+            if (outstanding > 0) {
+                outstanding--;
+            }
+        }
+        TaskResult result;
+        try {
+            result = TaskResult.success(task, Functions.integrate(
+                task.getFunction(), task.getLeftBorder(), task.getRightBorder(), task.getStep()));
+        } catch (RuntimeException e) {
+            result = TaskResult.failure(task, e);
+        }
+        if (isClosed()) {
+            upstream.cancel();
+            return;
+        }
+        // Задание получено по спросу подписчиков, поэтому submit() может
+        // ждать только доставки уже запрошенных ими результатов
+        submit(result);
+        requestUpstream();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        close();
+    }
+
+    // Запрашивает у источника недостающие задания. Спрос ограничен ёмкостью
+    // буфера подписчика, чтобы у источника не запрашивалось больше, чем можно
+    // сразу передать
+    private synchronized void requestUpstream() {
+        if (upstream == null || isClosed()) {
+            return;
+        }
+        long demand = Math.min(estimateMinimumDemand(), getMaxBufferCapacity());
+        long missing = demand - outstanding;
+        if (missing > 0) {
+            outstanding += missing;
+            upstream.request(missing);
+        }
+    }
+
+    // Подписчик, запросы которого дополнительно передаются звену
+    private final class DemandSubscriber implements Flow.Subscriber<TaskResult> {
+        private final Flow.Subscriber<? super TaskResult> delegate;
+
+        DemandSubscriber(Flow.Subscriber<? super TaskResult> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                    requestUpstream();
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(TaskResult item) {
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+}
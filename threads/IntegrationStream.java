@@ -0,0 +1,61 @@
+package threads;
+
+import functions.Function;
+import functions.Functions;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+// Независимый поток заданий: генерирует tasksCount заданий так же, как
+// Generator, и сразу интегрирует их, как Integrator, без передачи через
+// общий буфер. Состояние потока - только генератор случайных чисел,
+// поэтому десятки тысяч таких потоков заданий помещаются в одну JVM.
+// Возвращает количество успешно выполненных заданий.
+public class IntegrationStream implements Callable<Long> {
+    private final int streamId;
+    private final int tasksCount;
+    private final Random random;
+    private final ResultHandler handler;
+
+    // handler может быть null, если результаты не нужны
+    public IntegrationStream(int streamId, int tasksCount, long seed, ResultHandler handler) {
+        this.streamId = streamId;
+        this.tasksCount = tasksCount;
+        this.random = new Random(seed);
+        this.handler = handler;
+    }
+
+    public int getStreamId() {
+        return streamId;
+    }
+
+    @Override
+    public Long call() throws InterruptedException {
+        long completed = 0;
+        for (int i = 0; i < tasksCount; i++) {
+            // Отмена области (TaskScope) прерывает поток между заданиями
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Поток заданий " + streamId + " отменён");
+            }
+            
+            IntegrationTask task = RandomTasks.next(i, random);
+            Function function = task.getFunction();
+            double left = task.getLeftBorder();
+            double right = task.getRightBorder();
+            double step = task.getStep();
+            
+            try {
+                double result = Functions.integrate(function, left, right, step);
+                completed++;
+                if (handler != null) {
+                    handler.onResult(i, function, left, right, step, result);
+                }
+            } catch (IllegalArgumentException e) {
+                if (handler != null) {
+                    handler.onError(i, function, left, right, step, e);
+                }
+            }
+        }
+        return completed;
+    }
+}
@@ -0,0 +1,44 @@
+package threads;
+
+import functions.Function;
+
+// Неизменяемое задание на интегрирование для реактивных конвейеров
+// (TaskPublisher, IntegratingProcessor). Безопасно передаётся между потоками
+public final class IntegrationTask {
+    private final long sequence;
+    private final Function function;
+    private final double leftBorder;
+    private final double rightBorder;
+    private final double step;
+
+    public IntegrationTask(long sequence, Function function, double leftBorder, double rightBorder, double step) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не задана");
+        }
+        this.sequence = sequence;
+        this.function = function;
+        this.leftBorder = leftBorder;
+        this.rightBorder = rightBorder;
+        this.step = step;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+
+    public double getLeftBorder() {
+        return leftBorder;
+    }
+
+    public double getRightBorder() {
+        return rightBorder;
+    }
+
+    public double getStep() {
+        return step;
+    }
+}
@@ -1,56 +1,48 @@
 package threads;
 
+import functions.Function;
 import functions.Functions;
-import java.util.concurrent.Semaphore;
 
-public class Integrator extends Thread {
-    private Task task;
-    private Semaphore semaphore;
+public class Integrator extends Thread implements TaskHandler {
+    // Максимальное количество заданий, извлекаемых из буфера за один раз
+    private static final int BATCH_SIZE = 64;
+    
+    private TaskRingBuffer buffer;
+    private ResultHandler handler;
+    private PipelineMetrics metrics;
     
     private volatile boolean running = true;
     
-    public Integrator(Task task, Semaphore semaphore) {
-        this.task = task;
-        this.semaphore = semaphore;
+    // Интегратор обрабатывает задания, пока буфер не будет закрыт и опустошён
+    public Integrator(TaskRingBuffer buffer) {
+        this(buffer, new ConsoleResultHandler());
+    }
+    
+    // Результаты передаются handler (например, асинхронному ResultSink),
+    // поэтому интегратор не ждёт вывода на консоль
+    public Integrator(TaskRingBuffer buffer, ResultHandler handler) {
+        this.buffer = buffer;
+        this.handler = handler;
+    }
+    
+    // Подключает учёт времени интегрирования; вызывается до start()
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
     }
     
     @Override
     public void run() {
         try {
-            for (int i = 0; i < task.getTasksCount(); i++) {
+            while (true) {
                 if (!running || isInterrupted()) {
                     System.out.println("Интегратор: получен сигнал прерывания");
                     break;
                 }
                 
-                // Захватываем семафор для чтения
-                semaphore.acquire();
-                
-                // Читаем данные
-                double left, right, step;
-                try {
-                    left = task.getLeftBorder();
-                    right = task.getRightBorder();
-                    step = task.getStep();
-                } finally {
-                    // Освобождаем семафор
-                    semaphore.release();
-                }
-                
-                // Вычисляем интеграл
-                try {
-                    double result = Functions.integrate(
-                        task.getFunction(), left, right, step);
-                    
-                    System.out.printf("Integrator: Result %.4f %.4f %.4f %.8f (task=%d)%n", 
-                        left, right, step, result, i+1);
-                    
-                } catch (IllegalArgumentException e) {
-                    System.out.printf("Integrator: Ошибка в задании %d: %s%n", 
-                        i+1, e.getMessage());
+                // Забираем пакет готовых заданий; 0 - буфер закрыт и пуст
+                if (buffer.drain(this, BATCH_SIZE) == 0) {
+                    break;
                 }
-                
-                Thread.sleep(1);
             }
         } catch (InterruptedException e) {
             System.out.println("Интегратор: прерван");
@@ -60,8 +52,28 @@ public class Integrator extends Thread {
         }
     }
     
+    // Вычисляет интеграл для одного задания из буфера
+    public void onTask(long sequence, Function function, double left, double right, double step) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        double result;
+        try {
+            result = Functions.integrate(function, left, right, step);
+        } catch (IllegalArgumentException e) {
+            if (metrics != null) {
+                metrics.taskFailed(System.nanoTime() - start);
+            }
+            handler.onError(sequence, function, left, right, step, e);
+            return;
+        }
+        if (metrics != null) {
+            metrics.taskCompleted(System.nanoTime() - start,
+                (long) Functions.integrationEvaluations(function, left, right, step));
+        }
+        handler.onResult(sequence, function, left, right, step, result);
+    }
+    
     public void stopRunning() {
         running = false;
         this.interrupt();
     }
-}
\ No newline at end of file
+}
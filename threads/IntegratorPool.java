@@ -0,0 +1,391 @@
+package threads;
+
+import functions.Function;
+import functions.Functions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Пул из нескольких интеграторов, получающих задания из общего кольцевого буфера.
+// Каждый рабочий поток забирает задания пакетами в собственную очередь
+// и выполняет их с начала очереди; освободившийся поток, не нашедший заданий
+// в буфере, забирает задания с конца очереди другого потока. В режиме
+// упорядочивания результаты передаются получателю строго по номерам заданий.
+// С контролем допуска (AdmissionController) дорогие задания передаются
+// отдельным потокам; там же задания сверх бюджета интегрируются адаптивным методом.
+public class IntegratorPool {
+    // Количество заданий, забираемых из буфера в очередь потока за один раз
+    private static final int BATCH_SIZE = 16;
+
+    private final TaskRingBuffer buffer;
+    private final ResultHandler handler;
+    private final Worker[] workers;
+    private final Reorder reorder;
+
+    private PipelineMetrics metrics;
+    private AdmissionController admission;
+    // Очередь дорогих заданий и обслуживающие её потоки
+    private final ConcurrentLinkedDeque<Item> slowLane = new ConcurrentLinkedDeque<>();
+    private SlowWorker[] slowWorkers = new SlowWorker[0];
+
+    // Исключения получателя результатов: рабочие потоки их учитывают
+    // и продолжают работу
+    private final AtomicLong deliveryFailures = new AtomicLong();
+    private volatile RuntimeException deliveryFailure;
+
+    private volatile boolean started;
+    // Признак немедленной остановки: оставшиеся задания не выполняются
+    private volatile boolean stopped;
+
+    // parallelism - количество рабочих потоков; ordered - передавать результаты
+    // в порядке номеров заданий
+    public IntegratorPool(TaskRingBuffer buffer, int parallelism, boolean ordered, ResultHandler handler) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным");
+        }
+        this.buffer = buffer;
+        this.handler = handler;
+        this.reorder = ordered ? new Reorder() : null;
+        this.workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+
+    // Количество рабочих потоков, равное числу доступных процессоров
+    public IntegratorPool(TaskRingBuffer buffer, ResultHandler handler) {
+        this(buffer, Runtime.getRuntime().availableProcessors(), false, handler);
+    }
+
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Пул уже запущен");
+        }
+        started = true;
+        for (Worker worker : workers) {
+            worker.start();
+        }
+        for (SlowWorker worker : slowWorkers) {
+            worker.start();
+        }
+    }
+
+    public int getParallelism() {
+        return workers.length;
+    }
+
+    // Количество результатов, при передаче которых получатель выбросил исключение
+    public long getDeliveryFailureCount() {
+        return deliveryFailures.get();
+    }
+
+    // Первое исключение получателя результатов (null, если их не было)
+    public RuntimeException getDeliveryFailure() {
+        return deliveryFailure;
+    }
+
+    // Подключает учёт времени интегрирования и количества вычислений функции.
+    // Вызывается до start()
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Подключает контроль допуска с slowLaneParallelism потоками для дорогих
+    // заданий. Вызывается до start()
+    public synchronized void setAdmissionController(AdmissionController admission, int slowLaneParallelism) {
+        if (started) {
+            throw new IllegalStateException("Пул уже запущен");
+        }
+        if (admission != null && slowLaneParallelism < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным");
+        }
+        this.admission = admission;
+        this.slowWorkers = new SlowWorker[admission != null ? slowLaneParallelism : 0];
+        for (int i = 0; i < slowWorkers.length; i++) {
+            slowWorkers[i] = new SlowWorker(i);
+        }
+    }
+
+    // Упорядоченное завершение: новые задания не принимаются, уже записанные
+    // в буфер задания выполняются, после чего потоки завершаются
+    public void shutdown() {
+        buffer.close();
+    }
+
+    // Немедленное завершение: потоки заканчивают текущее задание и выходят,
+    // невыполненные задания отбрасываются
+    public void shutdownNow() {
+        stopped = true;
+        buffer.close();
+    }
+
+    // Ожидает завершения всех потоков; возвращает false по истечении времени
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread worker : allWorkers()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return isTerminated();
+            }
+            TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+        }
+        return isTerminated();
+    }
+
+    public boolean isTerminated() {
+        if (!started) {
+            return false;
+        }
+        for (Thread worker : allWorkers()) {
+            if (worker.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Thread[] allWorkers() {
+        Thread[] all = new Thread[workers.length + slowWorkers.length];
+        System.arraycopy(workers, 0, all, 0, workers.length);
+        System.arraycopy(slowWorkers, 0, all, workers.length, slowWorkers.length);
+        return all;
+    }
+
+    // Основной поток выполняет задание сам или передаёт его в очередь дорогих
+    // заданий; туда же идут задания для адаптивного метода, стоимость которых
+    // ограничена только бюджетом
+    private void dispatch(Item item) {
+        if (admission == null) {
+            execute(item);
+            return;
+        }
+        item.lane = admission.admit(item.function, item.leftBorder, item.rightBorder, item.step);
+        if (item.lane != AdmissionLane.FAST) {
+            slowLane.addLast(item);
+        } else {
+            execute(item);
+        }
+    }
+
+    // Выполняет одно задание и передаёт результат получателю
+    private void execute(Item item) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        long[] evaluations = new long[1];
+        try {
+            if (admission != null) {
+                item.result = admission.integrate(item.lane, item.function, item.leftBorder, item.rightBorder,
+                    item.step, evaluations);
+            } else {
+                item.result = Functions.integrate(item.function, item.leftBorder, item.rightBorder, item.step);
+                evaluations[0] = (long) Functions.integrationEvaluations(
+                    item.function, item.leftBorder, item.rightBorder, item.step);
+            }
+        } catch (RuntimeException e) {
+            item.error = e;
+        }
+        if (metrics != null) {
+            long elapsed = System.nanoTime() - start;
+            if (item.error == null) {
+                metrics.taskCompleted(elapsed, evaluations[0]);
+            } else {
+                metrics.taskFailed(elapsed);
+            }
+        }
+        if (reorder != null) {
+            reorder.complete(item);
+        } else {
+            deliver(item);
+        }
+    }
+
+    // Исключение получателя не завершает рабочий поток: иначе оставшиеся
+    // в очередях задания не были бы выполнены, а производители ждали бы
+    // свободных ячеек буфера бесконечно
+    private void deliver(Item item) {
+        try {
+            if (item.error == null) {
+                handler.onResult(item.sequence, item.function, item.leftBorder, item.rightBorder, item.step,
+                    item.result);
+            } else {
+                handler.onError(item.sequence, item.function, item.leftBorder, item.rightBorder, item.step,
+                    item.error);
+            }
+        } catch (RuntimeException e) {
+            if (deliveryFailures.getAndIncrement() == 0) {
+                deliveryFailure = e;
+            }
+        }
+    }
+
+    // Сколько заданий можно забрать из буфера. В режиме упорядочивания задания
+    // с номерами не дальше ёмкости буфера от ещё не переданного результата:
+    // иначе одно долгое задание копило бы в Reorder результаты всех следующих.
+    // Потоки проверяют окно независимо, поэтому оно может быть превышено
+    // не более чем на BATCH_SIZE заданий на поток
+    private int drainLimit() {
+        if (reorder == null) {
+            return BATCH_SIZE;
+        }
+        long window = buffer.getCapacity() - (buffer.getReadPosition() - reorder.next);
+        return (int) Math.max(0, Math.min(BATCH_SIZE, window));
+    }
+
+    // Задание в очереди рабочего потока вместе с результатом
+    private static final class Item {
+        final long sequence;
+        final Function function;
+        final double leftBorder;
+        final double rightBorder;
+        final double step;
+        double result;
+        RuntimeException error;
+        AdmissionLane lane = AdmissionLane.FAST;
+
+        Item(long sequence, Function function, double leftBorder, double rightBorder, double step) {
+            this.sequence = sequence;
+            this.function = function;
+            this.leftBorder = leftBorder;
+            this.rightBorder = rightBorder;
+            this.step = step;
+        }
+    }
+
+    // Восстановление порядка: готовые результаты ждут, пока не будут
+    // переданы все результаты с меньшими номерами. Получатель вызывается
+    // вне монитора; в каждый момент результаты передаёт один поток
+    // (delivering), поэтому порядок сохраняется
+    private final class Reorder {
+        private final Map<Long, Item> pending = new HashMap<>();
+        // Изменяется под монитором, читается без него в drainLimit()
+        private volatile long next;
+        private boolean delivering;
+
+        void complete(Item item) {
+            synchronized (this) {
+                pending.put(item.sequence, item);
+                if (delivering) {
+                    return;
+                }
+                delivering = true;
+            }
+            while (true) {
+                Item ready;
+                synchronized (this) {
+                    ready = pending.remove(next);
+                    if (ready == null) {
+                        delivering = false;
+                        break;
+                    }
+                    next++;
+                }
+                deliver(ready);
+            }
+        }
+    }
+
+    private final class Worker extends Thread implements TaskHandler {
+        private final int index;
+        private final ConcurrentLinkedDeque<Item> queue = new ConcurrentLinkedDeque<>();
+
+        Worker(int index) {
+            super("integrator-worker-" + index);
+            this.index = index;
+        }
+
+        // Задания из буфера складываются в собственную очередь
+        public void onTask(long sequence, Function function, double leftBorder, double rightBorder, double step) {
+            queue.addLast(new Item(sequence, function, leftBorder, rightBorder, step));
+        }
+
+        @Override
+        public void run() {
+            int attempt = 0;
+            try {
+                while (!stopped) {
+                    Item item = queue.pollFirst();
+                    if (item == null) {
+                        int limit = drainLimit();
+                        int drained = limit > 0 ? buffer.tryDrain(this, limit) : 0;
+                        if (drained > 0) {
+                            attempt = 0;
+                            continue;
+                        }
+                        item = steal();
+                        if (item == null) {
+                            if (drained < 0 && allQueuesEmpty()) {
+                                break;
+                            }
+                            attempt = TaskRingBuffer.backOff(attempt);
+                            continue;
+                        }
+                    }
+                    attempt = 0;
+                    dispatch(item);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Забирает задание с конца очереди другого потока
+        private Item steal() {
+            for (int k = 1; k < workers.length; k++) {
+                Item item = workers[(index + k) % workers.length].queue.pollLast();
+                if (item != null) {
+                    return item;
+                }
+            }
+            return null;
+        }
+
+        private boolean allQueuesEmpty() {
+            for (Worker worker : workers) {
+                if (!worker.queue.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Поток очереди дорогих заданий; завершается, когда основные потоки
+    // завершились и очередь пуста
+    private final class SlowWorker extends Thread {
+        SlowWorker(int index) {
+            super("integrator-slow-worker-" + index);
+        }
+
+        @Override
+        public void run() {
+            int attempt = 0;
+            try {
+                while (!stopped) {
+                    Item item = slowLane.pollFirst();
+                    if (item != null) {
+                        attempt = 0;
+                        execute(item);
+                        continue;
+                    }
+                    if (!anyWorkerAlive() && slowLane.isEmpty()) {
+                        break;
+                    }
+                    attempt = TaskRingBuffer.backOff(attempt);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean anyWorkerAlive() {
+            for (Worker worker : workers) {
+                if (worker.isAlive()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package threads;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Гистограмма задержек с логарифмически-линейными интервалами (как в HdrHistogram):
+// значения до 2^(SUB_BITS+1) хранятся точно, далее каждая степень двойки делится
+// на 2^SUB_BITS равных интервалов, поэтому относительная погрешность значения
+// не превышает 1/64 во всём диапазоне long. Запись - одно атомарное увеличение
+// счётчика без блокировок
+public class LatencyHistogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    // Значения меньше LINEAR_LIMIT хранятся в собственных интервалах
+    private static final int LINEAR_LIMIT = 2 * SUB_COUNT;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BITS - 1) * SUB_COUNT;
+
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKET_COUNT);
+    }
+
+    // Записывает значение (отрицательные значения считаются нулём)
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        totalCount.increment();
+        totalSum.add(value);
+        long max = maxValue.get();
+        while (value > max && !maxValue.compareAndSet(max, value)) {
+            max = maxValue.get();
+        }
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    // Среднее значение (NaN, если значений нет)
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? Double.NaN : (double) totalSum.sum() / count;
+    }
+
+    // Значение, не превышаемое заданной долей записей (percentile от 0 до 100).
+    // Возвращается верхняя граница интервала, но не больше максимума
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Процентиль должен быть от 0 до 100");
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    // Копия текущего состояния (записи, идущие одновременно, могут
+    // попасть в копию частично)
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                copy.counts.set(i, count);
+            }
+        }
+        copy.totalCount.add(totalCount.sum());
+        copy.totalSum.add(totalSum.sum());
+        copy.maxValue.set(maxValue.get());
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1f p50=%d p90=%d p99=%d max=%d",
+            getCount(), getMean(), getValueAtPercentile(50), getValueAtPercentile(90),
+            getValueAtPercentile(99), getMax());
+    }
+
+    // Номер интервала для значения
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int top = (int) (value >>> (exponent - SUB_BITS));
+        return LINEAR_LIMIT + (exponent - SUB_BITS - 1) * SUB_COUNT + (top - SUB_COUNT);
+    }
+
+    // Наибольшее значение, попадающее в интервал
+    static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int octave = (index - LINEAR_LIMIT) / SUB_COUNT;
+        int sub = (index - LINEAR_LIMIT) % SUB_COUNT;
+        int shift = octave + 1;
+        long lower = (long) (SUB_COUNT + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
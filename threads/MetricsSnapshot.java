@@ -0,0 +1,85 @@
+package threads;
+
+// Неизменяемый снимок показателей конвейера заданий (PipelineMetrics.snapshot())
+public class MetricsSnapshot {
+    private final long elapsedNanos;
+    private final long tasksGenerated;
+    private final long tasksCompleted;
+    private final long tasksFailed;
+    private final long functionEvaluations;
+    private final int queueDepth;
+    private final double throughput;
+    private final double recentThroughput;
+    private final LatencyHistogram waitTime;
+    private final LatencyHistogram integrationTime;
+
+    MetricsSnapshot(long elapsedNanos, long tasksGenerated, long tasksCompleted, long tasksFailed,
+                    long functionEvaluations, int queueDepth, double throughput, double recentThroughput,
+                    LatencyHistogram waitTime, LatencyHistogram integrationTime) {
+        this.elapsedNanos = elapsedNanos;
+        this.tasksGenerated = tasksGenerated;
+        this.tasksCompleted = tasksCompleted;
+        this.tasksFailed = tasksFailed;
+        this.functionEvaluations = functionEvaluations;
+        this.queueDepth = queueDepth;
+        this.throughput = throughput;
+        this.recentThroughput = recentThroughput;
+        this.waitTime = waitTime;
+        this.integrationTime = integrationTime;
+    }
+
+    // Время с создания PipelineMetrics, нс
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getTasksGenerated() {
+        return tasksGenerated;
+    }
+
+    public long getTasksCompleted() {
+        return tasksCompleted;
+    }
+
+    public long getTasksFailed() {
+        return tasksFailed;
+    }
+
+    // Суммарное количество вычислений значений функций
+    public long getFunctionEvaluations() {
+        return functionEvaluations;
+    }
+
+    // Количество заданий в буфере в момент снимка (-1, если буфер не подключён)
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    // Средняя скорость обработки с начала работы, заданий в секунду
+    public double getThroughput() {
+        return throughput;
+    }
+
+    // Скорость обработки с момента предыдущего снимка, заданий в секунду
+    public double getRecentThroughput() {
+        return recentThroughput;
+    }
+
+    // Время ожидания задания в буфере (от записи до начала обработки), нс
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    // Время интегрирования одного задания, нс
+    public LatencyHistogram getIntegrationTime() {
+        return integrationTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("generated=%d completed=%d failed=%d evaluations=%d queue=%d "
+                + "throughput=%.1f/s recent=%.1f/s%n  wait(ns): %s%n  integration(ns): %s",
+            tasksGenerated, tasksCompleted, tasksFailed, functionEvaluations, queueDepth,
+            throughput, recentThroughput, waitTime, integrationTime);
+    }
+}
@@ -0,0 +1,122 @@
+package threads;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Параллельный воспроизводимый генератор заданий. Задания разбиты на блоки
+// по BLOCK_SIZE штук; у каждого блока собственный поток случайных чисел
+// SplittableRandom, начальное значение которого получено из общего seed.
+// Рабочие потоки разбирают блоки в произвольном порядке, но задание с номером
+// i всегда создаётся из одного и того же блока и одного и того же состояния,
+// поэтому набор заданий для данного seed не зависит от количества потоков.
+public class ParallelTaskGenerator {
+    // Количество заданий в блоке с общим потоком случайных чисел
+    static final int BLOCK_SIZE = 4096;
+
+    private final int tasksCount;
+    private final long[] blockSeeds;
+
+    public ParallelTaskGenerator(long seed, int tasksCount) {
+        if (tasksCount < 0) {
+            throw new IllegalArgumentException("Количество заданий не может быть отрицательным");
+        }
+        this.tasksCount = tasksCount;
+        // Начальные значения блоков берутся из главного потока последовательно
+        int blocks = (int) (((long) tasksCount + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        SplittableRandom master = new SplittableRandom(seed);
+        this.blockSeeds = new long[blocks];
+        for (int b = 0; b < blocks; b++) {
+            blockSeeds[b] = master.nextLong();
+        }
+    }
+
+    public int getTasksCount() {
+        return tasksCount;
+    }
+
+    // Создаёт все задания в parallelism потоках; элемент i массива - задание с номером i
+    public IntegrationTask[] generate(int parallelism) throws InterruptedException {
+        IntegrationTask[] tasks = new IntegrationTask[tasksCount];
+        run(parallelism, (sequence, function, left, right, step) ->
+            tasks[(int) sequence] = new IntegrationTask(sequence, function, left, right, step));
+        return tasks;
+    }
+
+    // Передаёт все задания handler из parallelism потоков. Внутри блока задания
+    // передаются по возрастанию номеров, блоки обрабатываются параллельно,
+    // поэтому handler должен допускать одновременные вызовы (например,
+    // запись в TaskRingBuffer или в ResultSink)
+    public void generate(int parallelism, TaskHandler handler) throws InterruptedException {
+        if (handler == null) {
+            throw new IllegalArgumentException("Обработчик не задан");
+        }
+        run(parallelism, handler);
+    }
+
+    // Последовательно создаёт задания блока block
+    private void generateBlock(int block, TaskHandler handler) {
+        SplittableRandom random = new SplittableRandom(blockSeeds[block]);
+        long first = (long) block * BLOCK_SIZE;
+        long end = Math.min(first + BLOCK_SIZE, tasksCount);
+        for (long i = first; i < end; i++) {
+            IntegrationTask task = RandomTasks.next(i, random);
+            handler.onTask(i, task.getFunction(), task.getLeftBorder(), task.getRightBorder(), task.getStep());
+        }
+    }
+
+    private void run(int parallelism, TaskHandler handler) throws InterruptedException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным");
+        }
+        AtomicInteger nextBlock = new AtomicInteger();
+        int workersCount = Math.min(parallelism, Math.max(blockSeeds.length, 1));
+        Worker[] workers = new Worker[workersCount];
+        for (int i = 0; i < workersCount; i++) {
+            workers[i] = new Worker(i, nextBlock, handler);
+            workers[i].start();
+        }
+        try {
+            for (Worker worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            for (Worker worker : workers) {
+                worker.interrupt();
+            }
+            throw e;
+        }
+        // Первая ошибка обработчика передаётся вызывающему потоку
+        for (Worker worker : workers) {
+            if (worker.failure != null) {
+                throw worker.failure;
+            }
+        }
+    }
+
+    // Рабочий поток: забирает следующий необработанный блок, пока они есть
+    private final class Worker extends Thread {
+        private final AtomicInteger nextBlock;
+        private final TaskHandler handler;
+        private RuntimeException failure;
+
+        Worker(int index, AtomicInteger nextBlock, TaskHandler handler) {
+            super("task-generator-" + index);
+            this.nextBlock = nextBlock;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            try {
+                int block;
+                while (!isInterrupted() && (block = nextBlock.getAndIncrement()) < blockSeeds.length) {
+                    generateBlock(block, handler);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+                // Остальные потоки не берут новые блоки
+                nextBlock.set(blockSeeds.length);
+            }
+        }
+    }
+}
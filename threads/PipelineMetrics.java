@@ -0,0 +1,69 @@
+package threads;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Показатели конвейера генератор -> буфер -> интеграторы. Счётчики
+// распределённые (LongAdder), гистограммы без блокировок, поэтому
+// учёт почти не замедляет рабочие потоки. Снимок можно получать
+// во время работы конвейера.
+public class PipelineMetrics {
+    private final long startNanos = System.nanoTime();
+    private final LongAdder tasksGenerated = new LongAdder();
+    private final LongAdder tasksCompleted = new LongAdder();
+    private final LongAdder tasksFailed = new LongAdder();
+    private final LongAdder functionEvaluations = new LongAdder();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram integrationTime = new LatencyHistogram();
+
+    // Буфер, глубина очереди которого попадает в снимок
+    private volatile TaskRingBuffer queue;
+
+    // Состояние для расчёта скорости между снимками
+    private long lastSnapshotNanos = startNanos;
+    private long lastSnapshotProcessed;
+
+    // Подключает буфер: в снимок попадает текущее количество заданий в нём
+    public void setQueue(TaskRingBuffer queue) {
+        this.queue = queue;
+    }
+
+    // Генератор создал задание
+    public void taskGenerated() {
+        tasksGenerated.increment();
+    }
+
+    // Задание ожидало в буфере waitNanos наносекунд
+    public void taskWaited(long waitNanos) {
+        waitTime.record(waitNanos);
+    }
+
+    // Задание выполнено за integrationNanos с указанным числом вычислений функции
+    public void taskCompleted(long integrationNanos, long evaluations) {
+        tasksCompleted.increment();
+        functionEvaluations.add(evaluations);
+        integrationTime.record(integrationNanos);
+    }
+
+    // Задание завершилось ошибкой
+    public void taskFailed(long integrationNanos) {
+        tasksFailed.increment();
+        integrationTime.record(integrationNanos);
+    }
+
+    public synchronized MetricsSnapshot snapshot() {
+        long now = System.nanoTime();
+        long completed = tasksCompleted.sum();
+        long failed = tasksFailed.sum();
+        long processed = completed + failed;
+        long elapsed = now - startNanos;
+        double throughput = elapsed > 0 ? processed * 1e9 / elapsed : 0.0;
+        long interval = now - lastSnapshotNanos;
+        double recent = interval > 0 ? (processed - lastSnapshotProcessed) * 1e9 / interval : 0.0;
+        lastSnapshotNanos = now;
+        lastSnapshotProcessed = processed;
+        TaskRingBuffer buffer = queue;
+        return new MetricsSnapshot(elapsed, tasksGenerated.sum(), completed, failed,
+            functionEvaluations.sum(), buffer != null ? buffer.size() : -1, throughput, recent,
+            waitTime.copy(), integrationTime.copy());
+    }
+}
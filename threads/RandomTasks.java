@@ -0,0 +1,29 @@
+package threads;
+
+import functions.basic.Log;
+
+import java.util.random.RandomGenerator;
+
+// Общие правила создания случайных заданий для всех генераторов:
+// логарифм по основанию из [1, 10), левая граница из (0, 100),
+// правая граница из [100, 200), шаг из [0, 1)
+final class RandomTasks {
+    // Приватный конструктор чтобы нельзя было создать объект класса
+    private RandomTasks() {
+        throw new AssertionError("Нельзя создать объект класса RandomTasks");
+    }
+
+    // Извлекает из random ровно четыре числа, поэтому последовательность
+    // заданий однозначно определяется состоянием генератора
+    static IntegrationTask next(long sequence, RandomGenerator random) {
+        double base = 1 + random.nextDouble() * 9;
+        double left = random.nextDouble() * 100;
+        double right = 100 + random.nextDouble() * 100;
+        double step = random.nextDouble();
+
+        // Левая граница должна быть > 0 для логарифма
+        if (left <= 0) left = 0.001;
+
+        return new IntegrationTask(sequence, new Log(base), left, right, step);
+    }
+}
@@ -0,0 +1,92 @@
+package threads;
+
+// Пакет записей для ResultSink: параметры заданий и результаты хранятся
+// в параллельных массивах, пакеты переиспользуются после записи
+public final class ResultBatch {
+    // Виды записей
+    public static final byte GENERATED = 0;
+    public static final byte RESULT = 1;
+    public static final byte ERROR = 2;
+
+    private final byte[] kinds;
+    private final long[] sequences;
+    private final double[] leftBorders;
+    private final double[] rightBorders;
+    private final double[] steps;
+    private final double[] values;
+    private final String[] messages;
+    private int size;
+
+    ResultBatch(int capacity) {
+        kinds = new byte[capacity];
+        sequences = new long[capacity];
+        leftBorders = new double[capacity];
+        rightBorders = new double[capacity];
+        steps = new double[capacity];
+        values = new double[capacity];
+        messages = new String[capacity];
+    }
+
+    // Добавляет запись; возвращает false, если пакет заполнен
+    boolean add(byte kind, long sequence, double leftBorder, double rightBorder, double step,
+                double value, String message) {
+        if (size == kinds.length) {
+            return false;
+        }
+        kinds[size] = kind;
+        sequences[size] = sequence;
+        leftBorders[size] = leftBorder;
+        rightBorders[size] = rightBorder;
+        steps[size] = step;
+        values[size] = value;
+        messages[size] = message;
+        size++;
+        return true;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            messages[i] = null;
+        }
+        size = 0;
+    }
+
+    boolean isFull() {
+        return size == kinds.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte getKind(int i) {
+        return kinds[i];
+    }
+
+    public long getSequence(int i) {
+        return sequences[i];
+    }
+
+    public double getLeftBorder(int i) {
+        return leftBorders[i];
+    }
+
+    public double getRightBorder(int i) {
+        return rightBorders[i];
+    }
+
+    public double getStep(int i) {
+        return steps[i];
+    }
+
+    // Значение интеграла (для RESULT) или основание логарифма (для GENERATED,
+    // если функция - логарифм; иначе NaN)
+    public double getValue(int i) {
+        return values[i];
+    }
+
+    // Сообщение об ошибке (для ERROR)
+    public String getMessage(int i) {
+        return messages[i];
+    }
+}
@@ -0,0 +1,22 @@
+package threads;
+
+import functions.Function;
+
+// Получатель результатов интегрирования (IntegratorPool, Integrator) и сведений
+// о созданных заданиях (Generator). В режиме без упорядочивания методы
+// вызываются одновременно из нескольких рабочих потоков
+public interface ResultHandler {
+
+    // Генератор создал задание с номером sequence (по умолчанию не используется)
+    default void onTaskGenerated(long sequence, Function function, double leftBorder, double rightBorder,
+                                 double step) {
+    }
+
+    // Задание с номером sequence выполнено, result - значение интеграла
+    void onResult(long sequence, Function function, double leftBorder, double rightBorder, double step,
+                  double result);
+
+    // Задание с номером sequence завершилось ошибкой
+    void onError(long sequence, Function function, double leftBorder, double rightBorder, double step,
+                 RuntimeException error);
+}
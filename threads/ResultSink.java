@@ -0,0 +1,225 @@
+package threads;
+
+import functions.Function;
+import functions.basic.Log;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Асинхронный получатель результатов. Вызывающие потоки (генераторы,
+// интеграторы) только дописывают запись в текущий пакет в памяти; заполненные
+// пакеты передаются фоновому потоку записи, который выводит их целиком
+// и возвращает пакет для повторного использования. Поэтому интеграторы
+// никогда не ждут ввода-вывода: при переполнении очереди пакетов запись
+// отбрасывается и учитывается в getDroppedCount().
+public abstract class ResultSink implements ResultHandler, AutoCloseable {
+    // Размер пакета и максимальное число пакетов, ожидающих записи
+    private static final int DEFAULT_BATCH_SIZE = 1024;
+    private static final int DEFAULT_MAX_PENDING_BATCHES = 256;
+    // Неполный пакет записывается не позже чем через этот интервал
+    private static final long FLUSH_INTERVAL_MILLIS = 50;
+
+    private final int batchSize;
+    private final int maxPendingBatches;
+    private final LinkedBlockingQueue<ResultBatch> filled = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<ResultBatch> free = new ConcurrentLinkedQueue<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Поток записи запускается при первой записи, а не в конструкторе: иначе
+    // он мог бы вызвать write() до завершения конструктора подкласса, а при
+    // ошибке открытия вывода в подклассе остался бы работать без владельца.
+    // Текущий пакет и поток записи - доступ под монитором this
+    private Thread writer;
+    private ResultBatch current;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    protected ResultSink() {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_MAX_PENDING_BATCHES);
+    }
+
+    protected ResultSink(int batchSize, int maxPendingBatches) {
+        if (batchSize < 1 || maxPendingBatches < 1) {
+            throw new IllegalArgumentException("Размер пакета и длина очереди должны быть положительными");
+        }
+        this.batchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+        this.current = new ResultBatch(batchSize);
+    }
+
+    @Override
+    public void onTaskGenerated(long sequence, Function function, double left, double right, double step) {
+        double base = function instanceof Log ? ((Log) function).getBase() : Double.NaN;
+        append(ResultBatch.GENERATED, sequence, left, right, step, base, null);
+    }
+
+    public void onResult(long sequence, Function function, double left, double right, double step,
+                         double result) {
+        append(ResultBatch.RESULT, sequence, left, right, step, result, null);
+    }
+
+    public void onError(long sequence, Function function, double left, double right, double step,
+                        RuntimeException error) {
+        append(ResultBatch.ERROR, sequence, left, right, step, Double.NaN, error.getMessage());
+    }
+
+    // Количество записей, отброшенных из-за переполнения очереди
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Учитывает запись, которую подкласс отбросил сам (например, полученную
+    // после закрытия)
+    protected void countDropped() {
+        dropped.incrementAndGet();
+    }
+
+    // Первая ошибка ввода-вывода в потоке записи (null, если ошибок не было)
+    public IOException getFailure() {
+        return failure;
+    }
+
+    // Записывает оставшиеся пакеты и освобождает ресурсы вывода
+    @Override
+    public void close() throws IOException {
+        Thread started;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            started = writer;
+        }
+        // Поток записи не прерывается: прерывание закрыло бы канал вывода
+        // посреди записи. Он замечает закрытие за FLUSH_INTERVAL_MILLIS
+        if (started != null) {
+            try {
+                started.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            closeOutput();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Выводит пакет записей; вызывается только из потока записи
+    protected abstract void write(ResultBatch batch) throws IOException;
+
+    // Сбрасывает буферы вывода после серии пакетов
+    protected void flush() throws IOException {
+    }
+
+    // Закрывает вывод после записи последнего пакета
+    protected void closeOutput() throws IOException {
+    }
+
+    private void append(byte kind, long sequence, double left, double right, double step,
+                        double value, String message) {
+        synchronized (this) {
+            if (closed) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (writer == null) {
+                writer = new Thread(this::writeLoop, getClass().getSimpleName() + "-writer");
+                writer.setDaemon(true);
+                writer.start();
+            }
+            current.add(kind, sequence, left, right, step, value, message);
+            if (!current.isFull()) {
+                return;
+            }
+            if (filled.size() >= maxPendingBatches) {
+                // Поток записи не успевает: пакет отбрасывается, а не ожидается
+                dropped.addAndGet(current.size());
+                current.clear();
+                return;
+            }
+            filled.add(current);
+            ResultBatch next = free.poll();
+            current = next != null ? next : new ResultBatch(batchSize);
+        }
+    }
+
+    // Забирает текущий неполный пакет, если в нём есть записи
+    private synchronized ResultBatch takeCurrent() {
+        if (current.size() == 0) {
+            return null;
+        }
+        ResultBatch batch = current;
+        ResultBatch next = free.poll();
+        current = next != null ? next : new ResultBatch(batchSize);
+        return batch;
+    }
+
+    private void writeLoop() {
+        while (!closed) {
+            ResultBatch batch;
+            try {
+                batch = filled.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                batch = null;
+            }
+            if (batch == null) {
+                batch = takeCurrent();
+            }
+            if (batch != null) {
+                writeAndRecycle(batch);
+                if (filled.isEmpty()) {
+                    flushQuietly();
+                }
+            }
+        }
+        // Дописываем всё, что осталось после закрытия
+        ResultBatch batch;
+        while ((batch = filled.poll()) != null) {
+            writeAndRecycle(batch);
+        }
+        batch = takeCurrent();
+        if (batch != null) {
+            writeAndRecycle(batch);
+        }
+        flushQuietly();
+    }
+
+    private void writeAndRecycle(ResultBatch batch) {
+        if (failure == null) {
+            try {
+                write(batch);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            dropped.addAndGet(batch.size());
+        }
+        batch.clear();
+        free.add(batch);
+    }
+
+    private void flushQuietly() {
+        if (failure == null) {
+            try {
+                flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -21,13 +21,12 @@ public class SimpleGenerator implements Runnable {
         try {
             for (int i = 0; i < task.getTasksCount(); i++) {
                 // Генерируем случайные параметры
-                double base = 1 + random.nextDouble() * 9; // [1, 10)
-                double left = random.nextDouble() * 100; // [0, 100)
-                double right = 100 + random.nextDouble() * 100; // [100, 200)
-                double step = random.nextDouble(); // [0, 1)
-                
-                // Проверяем, что левая граница > 0 для логарифма
-                if (left <= 0) left = 0.001;
+                IntegrationTask next = RandomTasks.next(i, random);
+                Log function = (Log) next.getFunction();
+                double base = function.getBase();
+                double left = next.getLeftBorder();
+                double right = next.getRightBorder();
+                double step = next.getStep();
                 
                 // Синхронизация: ждем, пока предыдущее задание не будет обработано
                 synchronized (lock) {
@@ -35,11 +34,8 @@ public class SimpleGenerator implements Runnable {
                         lock.wait();
                     }
                     
-                    // Устанавливаем задание
-                    task.setFunction(new Log(base));
-                    task.setLeftBorder(left);
-                    task.setRightBorder(right);
-                    task.setStep(step);
+                    // Публикуем задание целиком вместе с его номером
+                    task.publish(i, function, left, right, step);
                     
                     // Помечаем задание как готовое
                     taskReady = true;
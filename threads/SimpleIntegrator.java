@@ -4,6 +4,8 @@ import functions.Functions;
 
 public class SimpleIntegrator implements Runnable {
     private Task task;
+    // Копия текущего задания, переиспользуется для всех заданий
+    private TaskSnapshot snapshot = new TaskSnapshot();
     
     public SimpleIntegrator(Task task) {
         this.task = task;
@@ -20,22 +22,25 @@ public class SimpleIntegrator implements Runnable {
                     }
                 }
                 
-                // Получаем данные задания
-                double left = task.getLeftBorder();
-                double right = task.getRightBorder();
-                double step = task.getStep();
+                // Получаем согласованную копию задания: функция и параметры
+                // всегда относятся к одному и тому же заданию
+                task.read(snapshot);
+                double left = snapshot.getLeftBorder();
+                double right = snapshot.getRightBorder();
+                double step = snapshot.getStep();
+                long sequence = snapshot.getSequence();
                 
                 try {
                     // Вычисляем интеграл
                     double result = Functions.integrate(
-                        task.getFunction(), left, right, step);
+                        snapshot.getFunction(), left, right, step);
                     
                     // Выводим результат
                     System.out.printf("Result %.4f %.4f %.4f %.8f (task=%d)%n", 
-                        left, right, step, result, i+1);
+                        left, right, step, result, sequence + 1);
                     
                 } catch (IllegalArgumentException e) {
-                    System.out.printf("Ошибка в задании %d: %s%n", i+1, e.getMessage());
+                    System.out.printf("Ошибка в задании %d: %s%n", sequence + 1, e.getMessage());
                 }
                 
                 // Синхронизация: помечаем задание как выполненное
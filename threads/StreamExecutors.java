@@ -0,0 +1,46 @@
+package threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Выбор исполнителя для потоков заданий. На JVM с виртуальными потоками
+// (Java 21+) каждое задание получает собственный виртуальный поток, поэтому
+// десятки тысяч одновременных потоков заданий занимают мало памяти.
+// На более старых JVM используется пул платформенных потоков по числу процессоров.
+public final class StreamExecutors {
+    // Фабричный метод Executors.newVirtualThreadPerTaskExecutor(), если он есть
+    private static final Method VIRTUAL_EXECUTOR = findVirtualExecutor();
+
+    // Приватный конструктор чтобы нельзя было создать объект класса
+    private StreamExecutors() {
+        throw new AssertionError("Нельзя создать объект класса StreamExecutors");
+    }
+
+    // Возвращает true, если JVM поддерживает виртуальные потоки
+    public static boolean isVirtualThreadsAvailable() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    // Исполнитель "поток на задание": виртуальные потоки, если доступны,
+    // иначе пул платформенных потоков по числу процессоров
+    public static ExecutorService newPerTaskExecutor() {
+        if (VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR.invoke(null);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Не удалось создать исполнитель на виртуальных потоках", e);
+            }
+        }
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    private static Method findVirtualExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -2,13 +2,26 @@ package threads;
 
 import functions.Function;
 
+import java.lang.invoke.VarHandle;
+
+// Задание на интегрирование, публикуемое целиком. Параметры задания
+// (функция, границы, шаг) и его номер записываются одним вызовом publish()
+// и читаются одним вызовом read() в снимок читателя. Объект переиспользуется
+// для следующих заданий без выделения памяти; согласованность обеспечивает
+// счётчик версий (seqlock): на время записи версия нечётная, и читатель,
+// заставший запись или изменение версии, повторяет чтение. Поэтому
+// читатель никогда не получает поля от двух разных заданий.
 public class Task {
     private Function function;        // Интегрируемая функция
     private double leftBorder;       // Левая граница интегрирования
     private double rightBorder;      // Правая граница интегрирования
     private double step;             // Шаг дискретизации
+    private long sequence = -1;      // Номер опубликованного задания (-1 - заданий ещё не было)
     private int tasksCount;          // Количество выполняемых заданий
     
+    // Версия: нечётная во время записи, увеличивается на 2 при каждой публикации
+    private volatile long version;
+    
     // Конструктор
     public Task() {
         this.function = null;
@@ -18,37 +31,69 @@ public class Task {
         this.tasksCount = 0;
     }
     
-    // Геттеры и сеттеры
-    public Function getFunction() {
-        return function;
-    }
-    
-    public void setFunction(Function function) {
+    // Публикует новое задание. Одновременные вызовы publish() упорядочиваются,
+    // читатели при этом не блокируются
+    public synchronized void publish(long sequence, Function function,
+                                     double leftBorder, double rightBorder, double step) {
+        long v = version;
+        version = v + 1;
+        // Записи полей не должны переместиться выше нечётной версии
+        VarHandle.storeStoreFence();
         this.function = function;
+        this.leftBorder = leftBorder;
+        this.rightBorder = rightBorder;
+        this.step = step;
+        this.sequence = sequence;
+        version = v + 2;
     }
     
-    public double getLeftBorder() {
-        return leftBorder;
+    // Копирует последнее опубликованное задание в snapshot. Возвращает false,
+    // если заданий ещё не было
+    public boolean read(TaskSnapshot snapshot) {
+        while (true) {
+            long before = version;
+            if ((before & 1) != 0) {
+                // Идёт запись
+                Thread.onSpinWait();
+                continue;
+            }
+            Function function = this.function;
+            double leftBorder = this.leftBorder;
+            double rightBorder = this.rightBorder;
+            double step = this.step;
+            long sequence = this.sequence;
+            // Чтения полей не должны переместиться ниже повторного чтения версии
+            VarHandle.loadLoadFence();
+            if (version == before) {
+                if (sequence < 0) {
+                    return false;
+                }
+                snapshot.set(sequence, function, leftBorder, rightBorder, step);
+                return true;
+            }
+        }
     }
     
-    public void setLeftBorder(double leftBorder) {
-        this.leftBorder = leftBorder;
+    // Геттеры отдельных полей возвращают согласованное последнее задание;
+    // для нескольких полей одного задания используйте read()
+    public Function getFunction() {
+        return snapshot().getFunction();
     }
     
-    public double getRightBorder() {
-        return rightBorder;
+    public double getLeftBorder() {
+        return snapshot().getLeftBorder();
     }
     
-    public void setRightBorder(double rightBorder) {
-        this.rightBorder = rightBorder;
+    public double getRightBorder() {
+        return snapshot().getRightBorder();
     }
     
     public double getStep() {
-        return step;
+        return snapshot().getStep();
     }
     
-    public void setStep(double step) {
-        this.step = step;
+    public long getSequence() {
+        return snapshot().getSequence();
     }
     
     public int getTasksCount() {
@@ -58,4 +103,10 @@ public class Task {
     public void setTasksCount(int tasksCount) {
         this.tasksCount = tasksCount;
     }
-}
\ No newline at end of file
+    
+    private TaskSnapshot snapshot() {
+        TaskSnapshot snapshot = new TaskSnapshot();
+        read(snapshot);
+        return snapshot;
+    }
+}
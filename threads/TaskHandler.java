@@ -0,0 +1,11 @@
+package threads;
+
+import functions.Function;
+
+// Обработчик заданий, извлекаемых из TaskRingBuffer. Параметры задания
+// передаются примитивами, поэтому на каждое задание не создаётся объект
+public interface TaskHandler {
+
+    // sequence - порядковый номер задания в буфере (начиная с 0)
+    void onTask(long sequence, Function function, double leftBorder, double rightBorder, double step);
+}
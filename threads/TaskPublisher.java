@@ -0,0 +1,177 @@
+package threads;
+
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Издатель заданий на интегрирование (java.util.concurrent.Flow). Задания
+// создаются так же, как в Generator, но только по запросу подписчика:
+// request(n) разрешает создать ещё n заданий, поэтому медленный потребитель
+// сдерживает генерацию без активного ожидания и без потери заданий.
+// Каждый подписчик получает собственную последовательность из tasksCount
+// заданий; при одинаковом seed последовательности совпадают.
+public class TaskPublisher implements Flow.Publisher<IntegrationTask> {
+    private final int tasksCount;
+    private final Long seed;
+    private final Executor executor;
+
+    // Задания со случайными параметрами; доставка выполняется в общем пуле
+    public TaskPublisher(int tasksCount) {
+        this(tasksCount, null, defaultExecutor());
+    }
+
+    // Воспроизводимая последовательность заданий
+    public TaskPublisher(int tasksCount, long seed) {
+        this(tasksCount, seed, defaultExecutor());
+    }
+
+    // Сигналы подписчику доставляются задачами, выполняемыми executor
+    public TaskPublisher(int tasksCount, long seed, Executor executor) {
+        this(tasksCount, Long.valueOf(seed), executor);
+    }
+
+    private TaskPublisher(int tasksCount, Long seed, Executor executor) {
+        if (tasksCount < 0) {
+            throw new IllegalArgumentException("Количество заданий не может быть отрицательным");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Исполнитель не задан");
+        }
+        this.tasksCount = tasksCount;
+        this.seed = seed;
+        this.executor = executor;
+    }
+
+    public int getTasksCount() {
+        return tasksCount;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super IntegrationTask> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Подписчик не задан");
+        }
+        Random random = seed != null ? new Random(seed) : new Random();
+        TaskSubscription subscription = new TaskSubscription(subscriber, random);
+        // Цикл доставки считается занятым (wip = 1) до возврата из onSubscribe:
+        // request(n) внутри onSubscribe только отмечается и не запускает
+        // onNext параллельно с ещё не завершённым onSubscribe
+        try {
+            subscriber.onSubscribe(subscription);
+        } catch (Throwable e) {
+            // Подписчик нарушил протокол - подписка отменяется
+            subscription.cancel();
+            return;
+        }
+        // Запрошенное в onSubscribe доставляется здесь; при нулевом
+        // количестве заданий подписчик сразу получит onComplete
+        executor.execute(subscription);
+    }
+
+    // Как и SubmissionPublisher, общий пул используется только при наличии
+    // в нём хотя бы двух потоков, иначе для доставки создаётся отдельный поток
+    private static Executor defaultExecutor() {
+        if (ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return ForkJoinPool.commonPool();
+        }
+        return command -> {
+            Thread thread = new Thread(command, "task-publisher");
+            thread.setDaemon(true);
+            thread.start();
+        };
+    }
+
+    // Подписка одного подписчика. Сигналы доставляются циклом run(), который
+    // одновременно выполняется не более чем в одном потоке: счётчик wip
+    // отмечает запросы, поступившие во время работы цикла. Начальное значение 1
+    // удерживает цикл, пока подписчик выполняет onSubscribe
+    private final class TaskSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super IntegrationTask> subscriber;
+        private final Random random;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger(1);
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException badRequest;
+        // Изменяется только внутри цикла доставки
+        private long emitted;
+
+        TaskSubscription(Flow.Subscriber<? super IntegrationTask> subscriber, Random random) {
+            this.subscriber = subscriber;
+            this.random = random;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("Запрошено неположительное количество заданий: " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = requested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            while (true) {
+                if (cancelled) {
+                    return;
+                }
+                if (badRequest != null) {
+                    cancelled = true;
+                    subscriber.onError(badRequest);
+                    return;
+                }
+                long demand = requested.get();
+                long sent = 0;
+                while (sent != demand && emitted < tasksCount) {
+                    if (cancelled) {
+                        return;
+                    }
+                    IntegrationTask task = RandomTasks.next(emitted++, random);
+                    try {
+                        subscriber.onNext(task);
+                    } catch (Throwable e) {
+                        // Подписчик нарушил протокол - подписка отменяется
+                        cancelled = true;
+                        return;
+                    }
+                    sent++;
+                }
+                if (emitted == tasksCount) {
+                    if (!cancelled) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                if (sent != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-sent);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
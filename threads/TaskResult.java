@@ -0,0 +1,41 @@
+package threads;
+
+// Неизменяемый результат интегрирования задания: значение интеграла
+// или исключение, возникшее при вычислении
+public final class TaskResult {
+    private final IntegrationTask task;
+    private final double value;
+    private final RuntimeException error;
+
+    private TaskResult(IntegrationTask task, double value, RuntimeException error) {
+        this.task = task;
+        this.value = value;
+        this.error = error;
+    }
+
+    public static TaskResult success(IntegrationTask task, double value) {
+        return new TaskResult(task, value, null);
+    }
+
+    public static TaskResult failure(IntegrationTask task, RuntimeException error) {
+        return new TaskResult(task, Double.NaN, error);
+    }
+
+    public IntegrationTask getTask() {
+        return task;
+    }
+
+    // Для неудачного задания возвращает NaN
+    public double getValue() {
+        return value;
+    }
+
+    // Возвращает null, если задание выполнено успешно
+    public RuntimeException getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
@@ -0,0 +1,226 @@
+package threads;
+
+import functions.Function;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Ограниченный кольцевой буфер заданий на интегрирование с заранее выделенными
+// ячейками. Каждая ячейка хранит номер последовательности: производитель может
+// записать задание с номером n только в ячейку с номером n, потребитель может
+// прочитать его только после публикации (номер n + 1). Поэтому производители
+// уходят вперёд не более чем на ёмкость буфера, задания не теряются
+// и не читаются дважды при любом количестве производителей и потребителей.
+public class TaskRingBuffer {
+    // Количество пустых проходов ожидания перед тем, как уступить процессор
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    // Пауза ожидания после активных попыток
+    private static final long PARK_NANOS = 50_000L;
+
+    private final int capacity;
+    private final int mask;
+
+    // Номера последовательности ячеек
+    private final AtomicLongArray sequences;
+    // Поля заданий хранятся в параллельных массивах
+    private final Function[] functions;
+    private final double[] leftBorders;
+    private final double[] rightBorders;
+    private final double[] steps;
+    // Время записи задания (System.nanoTime()), заполняется при подключённых показателях
+    private final long[] publishTimes;
+
+    // Признак закрытия хранится в старшем бите номера записи: закрытие
+    // и захват ячейки производителем - изменения одного значения, поэтому
+    // после закрытия ни один производитель не захватит ячейку, а потребитель,
+    // увидевший закрытие, видит и окончательный номер записи
+    private static final long CLOSED = 1L << 62;
+
+    // Следующий номер для записи (со старшим битом CLOSED) и для чтения
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLong readPosition = new AtomicLong();
+    // Показатели конвейера; подключаются до начала работы
+    private PipelineMetrics metrics;
+
+    // Ёмкость округляется вверх до степени двойки
+    public TaskRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Ёмкость буфера должна быть от 1 до 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.functions = new Function[size];
+        this.leftBorders = new double[size];
+        this.rightBorders = new double[size];
+        this.steps = new double[size];
+        this.publishTimes = new long[size];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Подключает учёт времени ожидания заданий в буфере и глубины очереди.
+    // Вызывается до начала записи заданий
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+        if (metrics != null) {
+            metrics.setQueue(this);
+        }
+    }
+
+    // Записывает задание, ожидая свободную ячейку, если буфер заполнен.
+    // Возвращает номер задания
+    public long put(Function function, double leftBorder, double rightBorder, double step)
+            throws InterruptedException {
+        int attempt = 0;
+        while (true) {
+            long position = writePosition.get();
+            if ((position & CLOSED) != 0) {
+                throw new IllegalStateException("Буфер заданий закрыт");
+            }
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (writePosition.compareAndSet(position, position + 1)) {
+                    functions[index] = function;
+                    leftBorders[index] = leftBorder;
+                    rightBorders[index] = rightBorder;
+                    steps[index] = step;
+                    if (metrics != null) {
+                        publishTimes[index] = System.nanoTime();
+                    }
+                    // Публикация: запись номера делает поля видимыми потребителям
+                    sequences.set(index, position + 1);
+                    return position;
+                }
+                attempt = 0;
+            } else if (difference < 0) {
+                // Буфер заполнен: ячейку ещё не освободил потребитель
+                attempt = backOff(attempt);
+            }
+        }
+    }
+
+    // Извлекает от одного до maxBatch подряд идущих заданий и передаёт их
+    // обработчику. Ожидает появления заданий, пока буфер не закрыт.
+    // Возвращает количество обработанных заданий; 0 - буфер закрыт и пуст
+    public int drain(TaskHandler handler, int maxBatch) throws InterruptedException {
+        int attempt = 0;
+        while (true) {
+            int count = tryDrain(handler, maxBatch);
+            if (count > 0) {
+                return count;
+            }
+            if (count < 0) {
+                return 0;
+            }
+            attempt = backOff(attempt);
+        }
+    }
+
+    // Неблокирующий вариант drain(): возвращает количество обработанных заданий,
+    // 0 - готовых заданий сейчас нет, -1 - буфер закрыт и пуст
+    public int tryDrain(TaskHandler handler, int maxBatch) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("Размер пакета должен быть положительным");
+        }
+        while (true) {
+            long position = readPosition.get();
+            int available = 0;
+            while (available < maxBatch && available < capacity
+                    && sequences.get((int) (position + available) & mask) == position + available + 1) {
+                available++;
+            }
+            if (available == 0) {
+                long write = writePosition.get();
+                return (write & CLOSED) != 0 && position == (write & ~CLOSED) ? -1 : 0;
+            }
+            if (readPosition.compareAndSet(position, position + available)) {
+                // Исключение обработчика не должно оставить захваченные ячейки
+                // занятыми: пакет обрабатывается до конца, затем исключение
+                // передаётся вызывающему
+                RuntimeException failure = null;
+                for (int k = 0; k < available; k++) {
+                    try {
+                        consume(position + k, handler);
+                    } catch (RuntimeException e) {
+                        if (failure == null) {
+                            failure = e;
+                        } else {
+                            failure.addSuppressed(e);
+                        }
+                    }
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                return available;
+            }
+        }
+    }
+
+    // Запрещает запись новых заданий; потребители дочитывают оставшиеся
+    public void close() {
+        long position;
+        do {
+            position = writePosition.get();
+        } while ((position & CLOSED) == 0 && !writePosition.compareAndSet(position, position | CLOSED));
+    }
+
+    public boolean isClosed() {
+        return (writePosition.get() & CLOSED) != 0;
+    }
+
+    // Номер следующего задания для чтения
+    long getReadPosition() {
+        return readPosition.get();
+    }
+
+    // Количество записанных, но ещё не извлечённых заданий (приблизительно)
+    public int size() {
+        long size = (writePosition.get() & ~CLOSED) - readPosition.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    // Копирует задание из ячейки, освобождает ячейку и только затем вызывает
+    // обработчик, чтобы долгая обработка не задерживала производителей
+    private void consume(long position, TaskHandler handler) {
+        int index = (int) position & mask;
+        Function function = functions[index];
+        double leftBorder = leftBorders[index];
+        double rightBorder = rightBorders[index];
+        double step = steps[index];
+        if (metrics != null) {
+            metrics.taskWaited(System.nanoTime() - publishTimes[index]);
+        }
+        functions[index] = null;
+        sequences.set(index, position + capacity);
+        handler.onTask(position, function, leftBorder, rightBorder, step);
+    }
+
+    // Ожидание с нарастающей паузой: активное, затем yield, затем park
+    static int backOff(int attempt) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return attempt + 1;
+    }
+}
@@ -0,0 +1,165 @@
+package threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+// Область структурированного выполнения: задания, запущенные через fork(),
+// не переживают область. Первая ошибка отменяет все остальные задания,
+// join() ждёт завершения всех заданий, close() отменяет незавершённые
+// и ждёт, пока их код действительно завершится.
+//
+//     try (TaskScope scope = new TaskScope(executor)) {
+//         Future<Long> a = scope.fork(streamA);
+//         Future<Long> b = scope.fork(streamB);
+//         scope.join();
+//         ... a.get(), b.get()
+//     }
+public class TaskScope implements AutoCloseable {
+    private final ExecutorService executor;
+    private final List<Future<?>> futures = new ArrayList<>();
+    // Первая ошибка среди заданий области
+    private Throwable failure;
+    private boolean closed;
+    // Количество заданий, код которых выполняется в данный момент. Отменённый
+    // FutureTask сразу сообщает о завершении, хотя его поток может ещё работать,
+    // поэтому окончание кода заданий отслеживается отдельно
+    private int active;
+
+    public TaskScope(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    // Запускает задание в области
+    public synchronized <T> Future<T> fork(Callable<T> task) {
+        if (closed) {
+            throw new IllegalStateException("Область заданий закрыта");
+        }
+        FutureTask<T> future = new FutureTask<T>(() -> call(task)) {
+            // Ошибка фиксируется до пробуждения ожидающих get(), иначе join()
+            // мог бы увидеть ExecutionException раньше, чем failure
+            @Override
+            protected void setException(Throwable error) {
+                fail(error);
+                super.setException(error);
+            }
+        };
+        futures.add(future);
+        if (failure != null) {
+            future.cancel(true);
+        } else {
+            executor.execute(future);
+        }
+        return future;
+    }
+
+    // Ожидает завершения всех заданий. Если какое-либо задание завершилось
+    // ошибкой, остальные отменяются и выбрасывается ExecutionException
+    public void join() throws InterruptedException, ExecutionException {
+        List<Future<?>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(futures);
+        }
+        Throwable error = null;
+        try {
+            for (Future<?> future : snapshot) {
+                try {
+                    future.get();
+                } catch (CancellationException e) {
+                    // Отменено из-за ошибки другого задания - ошибка сообщается ниже
+                } catch (ExecutionException e) {
+                    error = e.getCause();
+                    break;
+                }
+            }
+            synchronized (this) {
+                if (failure != null) {
+                    error = failure;
+                }
+                if (error != null) {
+                    // Остальные задания уже отменены; ошибка сообщается
+                    // только после того, как их код завершится
+                    while (active > 0) {
+                        wait();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            throw e;
+        }
+        if (error != null) {
+            throw new ExecutionException(error);
+        }
+    }
+
+    // Отменяет все незавершённые задания области и ждёт завершения их кода
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        cancelAll();
+        boolean interrupted = false;
+        synchronized (this) {
+            while (active > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Выполняет код задания, учитывая его в active. После ошибки или закрытия
+    // области задание не начинается: FutureTask мог быть запущен исполнителем
+    // до того, как его отменили
+    private <T> T call(Callable<T> task) throws Exception {
+        synchronized (this) {
+            if (closed || failure != null) {
+                throw new CancellationException("Область заданий закрыта");
+            }
+            active++;
+        }
+        try {
+            return task.call();
+        } finally {
+            synchronized (this) {
+                if (--active == 0) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private void fail(Throwable error) {
+        synchronized (this) {
+            // После закрытия ошибки не учитываются: в том числе отказ
+            // запускать задание, начавшееся во время закрытия
+            if (failure != null || closed) {
+                return;
+            }
+            failure = error;
+        }
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        List<Future<?>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(futures);
+        }
+        for (Future<?> future : snapshot) {
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package threads;
+
+import functions.Function;
+
+// Копия задания, принадлежащая читателю. Заполняется методом Task.read()
+// и переиспользуется для следующих заданий
+public class TaskSnapshot {
+    private long sequence = -1;
+    private Function function;
+    private double leftBorder;
+    private double rightBorder;
+    private double step;
+    
+    void set(long sequence, Function function, double leftBorder, double rightBorder, double step) {
+        this.sequence = sequence;
+        this.function = function;
+        this.leftBorder = leftBorder;
+        this.rightBorder = rightBorder;
+        this.step = step;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public Function getFunction() {
+        return function;
+    }
+    
+    public double getLeftBorder() {
+        return leftBorder;
+    }
+    
+    public double getRightBorder() {
+        return rightBorder;
+    }
+    
+    public double getStep() {
+        return step;
+    }
+}